@@ -1,16 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerWebClientFactory;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -19,48 +26,66 @@ public class BookingClient extends BaseClient {
 
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl,
-            RestTemplateBuilder builder) {
+            RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory,
+            ServerWebClientFactory webClientFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                webClientFactory.create(serverUrl + API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from,
-            Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingsForOwner(long userId,
+            BookingState state, Integer from, Integer size, String after) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("/owner?state={state}&from={from}&size={size}", userId, parameters, after);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from,
-            Integer size) {
+    public void exportBookingsForOwner(long userId, BookingState state, BookingExportFormat format,
+            HttpServletResponse response) throws IOException {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "format", format.name()
+        );
+        stream("/owner/export?state={state}&format={format}", userId, parameters, response);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookings(long userId, BookingState state,
+            Integer from, Integer size, String after) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("?state={state}&from={from}&size={size}", userId, parameters, after);
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(long userId,
+            BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, boolean approved, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(long bookingId,
+            boolean approved, long userId) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(long userId,
+            List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 @Controller
@@ -30,49 +37,80 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> getBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                                          .orElseThrow(() -> new IllegalArgumentException(
                                                  "Unknown state: " + stateParam));
-        log.info("Get booking with state={}, userId={}, from={}, size={}", stateParam, userId, from,
-                size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state={}, userId={}, from={}, size={}, after={}", stateParam, userId,
+                from, size, after);
+        return bookingClient.getBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getByItemOwnerIdAndState(
+    public CompletableFuture<ResponseEntity<Object>> getByItemOwnerIdAndState(
             @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
             @RequestHeader(USER_ID_HEADER) long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "after", required = false) String after) {
+        BookingState state = BookingState.from(stateParam)
+                                         .orElseThrow(() -> new IllegalArgumentException(
+                                                 "Unknown state: " + stateParam));
+        log.info("Get booking for owner with state={}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        return bookingClient.getBookingsForOwner(userId, state, from, size, after);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportByItemOwnerIdAndState(
+            @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+            @RequestParam(value = "format", defaultValue = "ndjson") String formatParam,
+            @RequestHeader(USER_ID_HEADER) long userId,
+            HttpServletResponse response) throws IOException {
         BookingState state = BookingState.from(stateParam)
                                          .orElseThrow(() -> new IllegalArgumentException(
                                                  "Unknown state: " + stateParam));
-        log.info("Get booking for owner with state={}, userId={}, from={}, size={}", stateParam,
-                userId, from, size);
-        return bookingClient.getBookingsForOwner(userId, state, from, size);
+        BookingExportFormat format = BookingExportFormat.from(formatParam)
+                                                        .orElseThrow(
+                                                                () -> new IllegalArgumentException(
+                                                                        "Unknown format: "
+                                                                                + formatParam));
+        log.info("Export bookings for owner with state={}, format={}, userId={}", stateParam,
+                formatParam, userId);
+        bookingClient.exportBookingsForOwner(userId, state, format, response);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> bookItem(
+            @RequestHeader(USER_ID_HEADER) long userId,
             @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking={}, userId={}", requestDto.getStart(), userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
-            @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(
+            @RequestHeader(USER_ID_HEADER) long userId, @PathVariable Long bookingId) {
         log.info("Get booking={}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
+    @PatchMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> changeStateOfBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestBody @NotEmpty List<@Valid BookingDecisionDto> decisions) {
+        log.info("Change status for {} bookings, userId={}", decisions.size(), userId);
+        return bookingClient.approveBookings(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> changeStateOfBooking(@PathVariable long bookingId,
-            @RequestParam("approved") boolean approved,
+    public CompletableFuture<ResponseEntity<Object>> changeStateOfBooking(
+            @PathVariable long bookingId, @RequestParam("approved") boolean approved,
             @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Change status for booking={}, userId={}, status={}", bookingId, userId, approved);
         return bookingClient.approveBooking(bookingId, approved, userId);
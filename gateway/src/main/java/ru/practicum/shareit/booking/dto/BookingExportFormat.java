@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.Optional;
+
+public enum BookingExportFormat {
+
+    CSV,
+    NDJSON;
+
+    public static Optional<BookingExportFormat> from(String stringFormat) {
+        for (BookingExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(stringFormat)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
\ No newline at end of file
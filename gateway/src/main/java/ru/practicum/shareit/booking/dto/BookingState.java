@@ -7,6 +7,7 @@ public enum BookingState {
     ALL,
     APPROVED,
     CURRENT,
+    EXPIRED,
     FUTURE,
     PAST,
     REJECTED,
@@ -1,109 +1,267 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
 
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.TRANSFER_ENCODING);
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final WebClient webClient;
+    @Nullable
+    private ServerResponseCache responseCache;
+    @Nullable
+    private RequestCoalescer requestCoalescer;
+    private ServerResponseMode responseMode = ServerResponseMode.OBJECT;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
         this.rest = rest;
+        this.webClient = webClient;
+    }
+
+    @Autowired(required = false)
+    public void setResponseCache(ServerResponseCache responseCache) {
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    @Autowired(required = false)
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    @Autowired
+    public void setResponseMode(
+            @Value("${shareit-server.response-mode}") ServerResponseMode responseMode) {
+        this.responseMode = responseMode;
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId,
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId,
             @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        if (requestCoalescer == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        }
+        URI uri = expand(path, parameters);
+        return requestCoalescer.coalesce(ID_SEGMENT.matcher(uri.getPath()).replaceAll("/{id}"),
+                requestKey(userId, uri),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected CompletableFuture<ResponseEntity<Object>> getPage(String path, long userId,
+            Map<String, Object> parameters, @Nullable String after) {
+        if (after == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> cursorParameters = new HashMap<>(parameters);
+        cursorParameters.put("after", after);
+        return get(path + "&after={after}", userId, cursorParameters);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId,
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId,
             @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId,
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId,
             @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId,
+            T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId,
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId,
             @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId,
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId,
             @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path,
-            Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected void stream(String path, long userId, Map<String, Object> parameters,
+            HttpServletResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.ALL));
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        try {
+            rest.execute(path, HttpMethod.GET, request -> request.getHeaders().putAll(headers),
+                    shareitServerResponse -> {
+                        response.setStatus(shareitServerResponse.getRawStatusCode());
+                        HttpHeaders responseHeaders = shareitServerResponse.getHeaders();
+                        if (responseHeaders.getContentType() != null) {
+                            response.setContentType(responseHeaders.getContentType().toString());
+                        }
+                        if (responseHeaders.containsKey(HttpHeaders.CONTENT_DISPOSITION)) {
+                            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                                    responseHeaders.getFirst(HttpHeaders.CONTENT_DISPOSITION));
+                        }
+                        StreamUtils.copy(shareitServerResponse.getBody(),
+                                response.getOutputStream());
+                        response.flushBuffer();
+                        return null;
+                    }, parameters);
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            StreamUtils.copy(e.getResponseBodyAsByteArray(), response.getOutputStream());
+        }
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method,
+            String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (responseCache == null || method != HttpMethod.GET) {
+            return send(method, path, headers, parameters, body);
+        }
+        String key = requestKey(userId, expand(path, parameters));
+        ResponseEntity<Object> cached = responseCache.get(key);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getHeaders().getETag());
+        }
+        return send(method, path, headers, parameters, body)
+                .thenApply(response -> responseCache.revalidate(key, cached, response));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> send(HttpMethod method, String path,
+            HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (webClient != null) {
+            return exchangeAsync(method, path, headers, parameters, body);
+        }
+        return CompletableFuture.completedFuture(exchange(method, path, headers, parameters, body));
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path,
+            HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<?> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class,
-                        parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity,
+                        responseMode.getBodyType(), parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity,
+                        responseMode.getBodyType());
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode())
-                                 .body(e.getResponseBodyAsByteArray());
+            return errorResponse(e.getRawStatusCode(), e.getResponseHeaders(),
+                    e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T> CompletableFuture<ResponseEntity<Object>> exchangeAsync(HttpMethod method,
+            String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+            @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                                                     .uri(path, parameters != null ? parameters
+                                                             : Map.of())
+                                                     .headers(requestHeaders -> requestHeaders
+                                                             .addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null
+                ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(this::toEntity)
+                              .toFuture();
+    }
+
+    private Mono<ResponseEntity<Object>> toEntity(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(responseMode.getBodyType())
+                           .map(BaseClient::prepareGatewayResponse);
+        }
+        return response.bodyToMono(byte[].class)
+                       .map(body -> errorResponse(response.rawStatusCode(),
+                               response.headers().asHttpHeaders(), body))
+                       .defaultIfEmpty(ResponseEntity.status(response.rawStatusCode()).build());
+    }
+
+    private ResponseEntity<Object> errorResponse(int status, @Nullable HttpHeaders headers,
+            byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (responseMode == ServerResponseMode.PASSTHROUGH && headers != null
+                && headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+        return responseBuilder.body(body);
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return rest.getUriTemplateHandler()
+                   .expand(path, parameters != null ? parameters : Map.of());
+    }
+
+    private static String requestKey(Long userId, URI uri) {
+        return userId + " " + uri;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -114,10 +272,13 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
         if (response.getStatusCode()
                     .is2xxSuccessful()) {
-            return response;
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            HOP_BY_HOP_HEADERS.forEach(headers::remove);
+            return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * Connection manager that publishes its pool gauges and records how long requests wait to lease
+ * a pooled connection. Leases made before the meter registry binds it are not recorded.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager
+        implements MeterBinder {
+
+    private static final String LEASE_TIMER = "httpcomponents.httpclient.pool.lease";
+
+    private final String poolName;
+    private volatile Timer acquired;
+    private volatile Timer timedOut;
+
+    public InstrumentedConnectionManager(String poolName) {
+        this.poolName = poolName;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, poolName).bindTo(meterRegistry);
+        acquired = leaseTimer(meterRegistry, "acquired");
+        timedOut = leaseTimer(meterRegistry, "timeout");
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException,
+                    ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    HttpClientConnection connection = request.get(timeout, unit);
+                    record(acquired, start);
+                    return connection;
+                } catch (ConnectionPoolTimeoutException e) {
+                    record(timedOut, start);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer leaseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(LEASE_TIMER)
+                    .description("Time spent waiting to lease a pooled connection")
+                    .tag("httpclient", poolName)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+    }
+}
\ No newline at end of file
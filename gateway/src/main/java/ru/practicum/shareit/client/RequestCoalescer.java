@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight coalescing of identical server reads: while a call for a key is in flight,
+ * callers with the same key share its result instead of calling the server again.
+ *
+ * <p>{@code shareit.gateway.coalescing.requests} counts callers per endpoint with
+ * {@code role=leader} for the ones that reached the server and {@code role=follower} for the
+ * ones that were coalesced.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+
+    private static final String REQUESTS_COUNTER = "shareit.gateway.coalescing.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<ResponseEntity<Object>>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public CompletableFuture<ResponseEntity<Object>> coalesce(String endpoint, String key,
+            Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlight.putIfAbsent(key, result);
+        if (leader != null) {
+            count(endpoint, "follower");
+            return leader;
+        }
+        count(endpoint, "leader");
+        try {
+            call.get().whenComplete((response, error) -> {
+                inFlight.remove(key, result);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, result);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void count(String endpoint, String role) {
+        meterRegistry.counter(REQUESTS_COUNTER, "endpoint", endpoint, "role", role).increment();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+@Configuration
+@EnableConfigurationProperties(ServerPoolProperties.class)
+public class ServerHttpClientConfig {
+
+    private static final String POOL_NAME = "shareit-server";
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+    private static final DefaultConnectionKeepAliveStrategy KEEP_ALIVE_HEADER_STRATEGY =
+            DefaultConnectionKeepAliveStrategy.INSTANCE;
+
+    @Bean
+    public InstrumentedConnectionManager serverConnectionManager(ServerPoolProperties pool) {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(
+                POOL_NAME);
+        connectionManager.setMaxTotal(pool.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(pool.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+        return connectionManager;
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory serverRequestFactory(ServerPoolProperties pool,
+            InstrumentedConnectionManager serverConnectionManager) {
+        long keepAlive = pool.getKeepAlive().toMillis();
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(
+                                                           (int) pool.getConnectTimeout()
+                                                                     .toMillis())
+                                                   .setSocketTimeout(
+                                                           (int) pool.getReadTimeout().toMillis())
+                                                   .setConnectionRequestTimeout(
+                                                           (int) pool.getLeaseTimeout().toMillis())
+                                                   .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                                                    .setConnectionManager(serverConnectionManager)
+                                                    .setDefaultRequestConfig(requestConfig)
+                                                    .setKeepAliveStrategy((response, context) -> {
+                                                        long duration = KEEP_ALIVE_HEADER_STRATEGY
+                                                                .getKeepAliveDuration(response,
+                                                                        context);
+                                                        return duration > 0
+                                                                ? Math.min(duration, keepAlive)
+                                                                : keepAlive;
+                                                    })
+                                                    .evictExpiredConnections()
+                                                    .evictIdleConnections(keepAlive,
+                                                            TimeUnit.MILLISECONDS)
+                                                    .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
\ No newline at end of file
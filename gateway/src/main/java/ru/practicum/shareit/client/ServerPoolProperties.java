@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ServerPoolProperties {
+
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration leaseTimeout = Duration.ofSeconds(5);
+}
\ No newline at end of file
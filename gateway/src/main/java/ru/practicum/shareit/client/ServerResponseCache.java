@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the last server response with an ETag per user and URI so repeated reads are revalidated
+ * with {@code If-None-Match} and an unchanged resource costs a bodiless 304.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServerResponseCache {
+
+    public static final String CACHE_NAME = "serverResponses";
+
+    private final CacheManager cacheManager;
+
+    @Nullable
+    public ResponseEntity<Object> get(String key) {
+        return cache().get(key, ResponseEntity.class);
+    }
+
+    public ResponseEntity<Object> revalidate(String key, @Nullable ResponseEntity<Object> cached,
+            ResponseEntity<Object> response) {
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return cached;
+        }
+        if (response.getStatusCode().is2xxSuccessful()
+                && response.getHeaders().getETag() != null) {
+            cache().put(key, response);
+        } else {
+            cache().evict(key);
+        }
+        return response;
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+/**
+ * How gateway clients relay server responses: parsed into JSON trees and rendered again, or as
+ * the raw response bytes.
+ */
+public enum ServerResponseMode {
+
+    OBJECT(Object.class),
+    PASSTHROUGH(byte[].class);
+
+    private final Class<?> bodyType;
+
+    ServerResponseMode(Class<?> bodyType) {
+        this.bodyType = bodyType;
+    }
+
+    public Class<?> getBodyType() {
+        return bodyType;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Creates non-blocking clients for the ShareIt server when the gateway runs in reactive
+ * client mode.
+ *
+ * <p>All clients share one Reactor Netty connection pool sized and timed by
+ * {@link ServerPoolProperties}, like the blocking clients. Every client talks to the one server
+ * route, so the pool is capped by the lower of the total and per-route limits.
+ */
+@Component
+public class ServerWebClientFactory {
+
+    private static final String REACTIVE_MODE = "reactive";
+    private static final String POOL_NAME = "shareit-server";
+
+    private final WebClient.Builder builder;
+    private final ReactorClientHttpConnector connector;
+
+    public ServerWebClientFactory(@Value("${shareit-server.client-mode}") String mode,
+            ServerPoolProperties pool, WebClient.Builder builder) {
+        if (REACTIVE_MODE.equalsIgnoreCase(mode)) {
+            ConnectionProvider connectionProvider = ConnectionProvider
+                    .builder(POOL_NAME)
+                    .maxConnections(Math.min(pool.getMaxTotal(), pool.getMaxPerRoute()))
+                    .pendingAcquireMaxCount(-1)
+                    .pendingAcquireTimeout(pool.getLeaseTimeout())
+                    .maxIdleTime(pool.getKeepAlive())
+                    .metrics(true)
+                    .build();
+            this.builder = builder;
+            this.connector = new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                            (int) pool.getConnectTimeout().toMillis())
+                    .responseTimeout(pool.getReadTimeout()));
+        } else {
+            this.builder = null;
+            this.connector = null;
+        }
+    }
+
+    @Nullable
+    public WebClient create(String baseUrl) {
+        if (builder == null) {
+            return null;
+        }
+        return builder.clone()
+                      .baseUrl(baseUrl)
+                      .clientConnector(connector)
+                      .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                      .build();
+    }
+}
\ No newline at end of file
@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerWebClientFactory;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -19,50 +24,83 @@ public class ItemClient extends BaseClient {
 
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-            RestTemplateBuilder builder) {
+            RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory,
+            ServerWebClientFactory webClientFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                webClientFactory.create(serverUrl + API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(long userId, ItemDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> createItems(long userId,
+            List<ItemDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItem(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByName(String text, long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(long userId, long itemId,
+            LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemsByName(String text, long userId,
+            int from, int size, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        ));
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null && end != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path += "&start={start}&end={end}";
+        }
+        return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllItemsByUserId(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByUserId(long userId, int from, int size, String after) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters, after);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(long userId, long itemId,
+            ItemDto requestDto) {
         return patch("/" + itemId, userId, requestDto);
     }
 
-    public ResponseEntity<Object> deleteItem(long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(long itemId) {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(long userId, long itemId,
             CommentDtoRequest requestDto) {
         return post("/" + itemId + "/comment", userId, requestDto);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> getComments(long userId, long itemId, int from,
+            int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?from={from}&size={size}", userId, parameters);
+    }
 }
\ No newline at end of file
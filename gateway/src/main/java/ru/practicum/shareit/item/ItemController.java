@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -18,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.Marker;
@@ -33,58 +40,102 @@ public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> createItem(
+            @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestBody @Validated({Marker.OnCreate.class}) ItemDto item) {
         log.info("Creating item={}, userId={}", item, userId);
         return itemClient.createItem(userId, item);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> createItems(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestBody @NotEmpty List<ItemDto> items) {
+        log.info("Creating {} items, userId={}", items.size(), userId);
+        return itemClient.createItems(userId, items);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(USER_ID_HEADER) Long userId,
-            @PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(
+            @RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long itemId) {
         log.info("Get item={}, userId={}", itemId, userId);
         return itemClient.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(
+            @RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get availability of item={} from={} to={}, userId={}", itemId, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability range start must be before its end.");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> getByName(@RequestHeader(USER_ID_HEADER) Long userId,
-            @RequestParam("text") String name,
+    public CompletableFuture<ResponseEntity<Object>> getByName(
+            @RequestHeader(USER_ID_HEADER) Long userId, @RequestParam("text") String name,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Get items with text={}, userId={}, from={}, size={}", name, userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Get items with text={}, userId={}, from={}, size={}, start={}, end={}", name,
+                userId, from, size, start, end);
+        if ((start != null || end != null)
+                && (start == null || end == null || !start.isBefore(end))) {
+            throw new ValidationException("Search range start must be before its end.");
+        }
         if (name.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(Collections.emptyList()));
         }
-        return itemClient.getItemsByName(name, userId, from, size);
+        return itemClient.getItemsByName(name, userId, from, size, start, end);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByUserId(
+            @RequestHeader(USER_ID_HEADER) Long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Get items with userId={}, from={}, size={}", userId, from, size);
-        return itemClient.getAllItemsByUserId(userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "after", required = false) String after) {
+        log.info("Get items with userId={}, from={}, size={}, after={}", userId, from, size, after);
+        return itemClient.getAllItemsByUserId(userId, from, size, after);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(
+            @RequestHeader(USER_ID_HEADER) Long userId,
             @PathVariable Long itemId, @Valid @RequestBody ItemDto item) {
         log.info("Update item={} from userId={}: item={}", itemId, userId, item);
         return itemClient.updateItem(userId, itemId, item);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(@PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(@PathVariable Long itemId) {
         log.info("Delete item={}", itemId);
         return itemClient.deleteItem(itemId);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addCommentToItem(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> addCommentToItem(
+            @RequestHeader(USER_ID_HEADER) Long userId,
             @PathVariable Long itemId, @RequestBody CommentDtoRequest comment) {
         log.info("Creating comment={}, for item={} from userId={}", comment, itemId, userId);
         return itemClient.addComment(userId, itemId, comment);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<Object>> getComments(
+            @RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long itemId,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive
+            @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Get comments for item={}, userId={}, from={}, size={}", itemId, userId, from, size);
+        return itemClient.getComments(userId, itemId, from, size);
+    }
 }
\ No newline at end of file
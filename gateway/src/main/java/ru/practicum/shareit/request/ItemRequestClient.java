@@ -1,14 +1,16 @@
 package ru.practicum.shareit.request;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerWebClientFactory;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -19,27 +21,31 @@ public class ItemRequestClient extends BaseClient {
 
     @Autowired
     public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
-            RestTemplateBuilder builder) {
+            RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory,
+            ServerWebClientFactory webClientFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                webClientFactory.create(serverUrl + API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(long userId, ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItemRequest(long userId,
+            ItemRequestDto requestDto) {
         if (requestDto.getDescription() == null || requestDto.getDescription().isBlank()) {
             throw new ValidationException("Description can't be empty.");
         }
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getItemRequest(long requestId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemRequest(long requestId, long userId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsByUserId(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemRequestsByUserId(long userId,
+            int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -47,11 +53,11 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemRequests(long userId, int from, int size, String after) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getPage("/all?from={from}&size={size}", userId, parameters, after);
     }
 }
\ No newline at end of file
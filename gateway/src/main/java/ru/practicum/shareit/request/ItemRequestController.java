@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -28,21 +29,24 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+    public CompletableFuture<ResponseEntity<Object>> createRequest(
+            @Valid @RequestBody ItemRequestDto itemRequestDto,
             @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Creating create request={} from userId={}", itemRequestDto, userId);
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping(value = "/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@PathVariable(value = "requestId") Long requestId,
+    public CompletableFuture<ResponseEntity<Object>> getItemRequest(
+            @PathVariable(value = "requestId") Long requestId,
             @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Get request={}, userId={}", requestId, userId);
         return itemRequestClient.getItemRequest(requestId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUser(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllByUser(
+            @RequestHeader(USER_ID_HEADER) Long userId,
             @PositiveOrZero
             @RequestParam(name = "from",defaultValue = "0") int from,
             @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
@@ -51,11 +55,13 @@ public class ItemRequestController {
     }
 
     @GetMapping(value = "/all")
-    public ResponseEntity<Object> getAll(@PositiveOrZero
+    public CompletableFuture<ResponseEntity<Object>> getAll(@PositiveOrZero
     @RequestParam(name = "from", defaultValue = "0") int from,
             @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "after", required = false) String after,
             @RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("Get all requests for userId={}, from={}, size={}", userId, from, size);
-        return itemRequestClient.getAllItemRequests(userId, from, size);
+        log.info("Get all requests for userId={}, from={}, size={}, after={}", userId, from, size,
+                after);
+        return itemRequestClient.getAllItemRequests(userId, from, size, after);
     }
 }
\ No newline at end of file
@@ -1,13 +1,15 @@
 package ru.practicum.shareit.user;
 
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerWebClientFactory;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
 @Service
@@ -17,32 +19,35 @@ public class UserClient extends BaseClient {
 
     @Autowired
     public UserClient(@Value("${shareit-server.url}") String serverUrl,
-            RestTemplateBuilder builder) {
+            RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory,
+            ServerWebClientFactory webClientFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                webClientFactory.create(serverUrl + API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createUser(UserRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserRequestDto requestDto) {
         return post("", requestDto);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(long userId,
+            UserRequestDto requestDto) {
         return patch("/" + userId, requestDto);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(long userId) {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> getUser(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(long userId) {
         return get("/" + userId);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user;
 
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -24,28 +25,28 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestBody @Validated({Marker.OnCreate.class}) UserRequestDto user) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestBody @Validated({Marker.OnCreate.class}) UserRequestDto user) {
         return userClient.createUser(user);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         return userClient.getAllUsers();
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable Long userId,
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable Long userId,
             @RequestBody @Validated({Marker.OnUpdate.class}) UserRequestDto user) {
         return userClient.updateUser(userId, user);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable Long userId) {
         return userClient.deleteUser(userId);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable Long userId) {
         return userClient.getUser(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+/**
+ * Fires identical reads from many threads while the server stub holds the first one and checks
+ * that only that one reaches the server.
+ */
+class RequestCoalescerTest {
+
+    private static final int THREADS = 16;
+    private static final String REQUESTS_COUNTER = "shareit.gateway.coalescing.requests";
+    private static final String USER_BODY =
+            "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}";
+
+    private final AtomicInteger serverCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService executor;
+    private MeterRegistry meterRegistry;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), THREADS);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::answerWhenReleased);
+        server.start();
+        executor = Executors.newFixedThreadPool(THREADS);
+        meterRegistry = new SimpleMeterRegistry();
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(
+                "http://localhost:" + server.getAddress().getPort() + "/users"));
+        client = new BaseClient(rest);
+        client.setRequestCoalescer(new RequestCoalescer(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReadsMakeOneServerCall() throws Exception {
+        List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            responses.add(executor.submit(() -> client.get("/1", 1L).get()));
+        }
+        awaitFollowers(THREADS - 1);
+        release.countDown();
+
+        for (Future<ResponseEntity<Object>> response : responses) {
+            ResponseEntity<Object> entity = response.get(10, TimeUnit.SECONDS);
+            assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(entity.getBody()).hasToString("{id=1, name=user, email=user@mail.ru}");
+        }
+        assertThat(serverCalls).hasValue(1);
+        assertThat(requests("leader")).isEqualTo(1);
+        assertThat(requests("follower")).isEqualTo(THREADS - 1);
+    }
+
+    @Test
+    void readAfterCompletedCallGoesToServerAgain() throws Exception {
+        release.countDown();
+
+        client.get("/1", 1L).get(10, TimeUnit.SECONDS);
+        client.get("/1", 1L).get(10, TimeUnit.SECONDS);
+
+        assertThat(serverCalls).hasValue(2);
+        assertThat(requests("leader")).isEqualTo(2);
+        assertThat(requests("follower")).isZero();
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (requests("follower") < followers && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(requests("follower")).isEqualTo(followers);
+    }
+
+    private double requests(String role) {
+        return meterRegistry.counter(REQUESTS_COUNTER, "endpoint", "/users/{id}", "role", role)
+                            .count();
+    }
+
+    private void answerWhenReleased(HttpExchange exchange) throws IOException {
+        serverCalls.incrementAndGet();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = USER_BODY.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+/**
+ * Sends concurrent reads through a gateway in each client mode to a server stub that answers
+ * slowly, and compares how many of them the stub sees in flight at once.
+ *
+ * <p>In blocking mode every in-flight server call holds a Tomcat thread, so the thread pool caps
+ * the calls. In reactive mode the thread is released and all reads reach the server together.
+ */
+@Slf4j
+class ServerClientModeLoadTest {
+
+    private static final int REQUESTS = 200;
+    private static final int TOMCAT_THREADS = 50;
+    private static final Duration SERVER_DELAY = Duration.ofSeconds(1);
+    private static final String USER_BODY =
+            "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS * 2);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::answerSlowly);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void reactiveModeKeepsMoreServerCallsInFlightThanBlockingMode() {
+        int blockingPeak = peakInFlight("blocking");
+        int reactivePeak = peakInFlight("reactive");
+
+        assertThat(blockingPeak).isLessThanOrEqualTo(TOMCAT_THREADS);
+        assertThat(reactivePeak).isEqualTo(REQUESTS);
+    }
+
+    private int peakInFlight(String mode) {
+        peakInFlight.set(0);
+        try (ServletWebServerApplicationContext gateway = startGateway(mode)) {
+            int port = gateway.getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int i = 1; i <= REQUESTS; i++) {
+                HttpRequest request = HttpRequest
+                        .newBuilder(URI.create("http://localhost:" + port + "/users/" + i))
+                        .timeout(Duration.ofMinutes(1))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            responses.forEach(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+            long millis = (System.nanoTime() - started) / 1_000_000;
+            log.info("{} mode: {} reads in {} ms, peak in flight at the server {}", mode,
+                    REQUESTS, millis, peakInFlight.get());
+            return peakInFlight.get();
+        }
+    }
+
+    private ServletWebServerApplicationContext startGateway(String mode) {
+        return (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                ShareItGateway.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--shareit-server.client-mode=" + mode,
+                        "--shareit-server.pool.max-total=" + REQUESTS * 2,
+                        "--shareit-server.pool.max-per-route=" + REQUESTS * 2);
+    }
+
+    private void answerSlowly(HttpExchange exchange) throws IOException {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(SERVER_DELAY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        byte[] body = USER_BODY.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
\ No newline at end of file
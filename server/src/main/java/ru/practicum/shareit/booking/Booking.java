@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -11,6 +12,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -38,6 +40,10 @@ public class Booking {
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    @JsonIgnore
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     @Column(name = "start_Booking")
     private LocalDateTime start;
 
@@ -47,4 +53,9 @@ public class Booking {
     @Column(name = "status")
     @Enumerated(EnumType.STRING)
     private BookingState status;
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
\ No newline at end of file
@@ -2,6 +2,10 @@ package ru.practicum.shareit.booking;
 
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,9 +15,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithStatus;
+import ru.practicum.shareit.booking.service.BookingExportFormat;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.PageCursor;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -31,6 +40,13 @@ public class BookingController {
         return bookingService.create(userId, bookingDto);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResult> changeStateOfBookings(
+            @RequestBody List<BookingDecisionDto> decisions,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
+        return bookingService.approveBookings(decisions, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public Booking changeStateOfBooking(@PathVariable Long bookingId,
             @RequestParam("approved") boolean approved,
@@ -38,6 +54,23 @@ public class BookingController {
         return bookingService.approveBooking(bookingId, approved, userId);
     }
 
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByItemOwnerIdAndState(
+            @RequestParam(value = "state", defaultValue = "ALL") String state,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                                                           .filename("bookings."
+                                                                   + exportFormat.getExtension())
+                                                           .build();
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                             .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                             .body(bookingService.exportByItemOwnerIdAndState(state, userId,
+                                     exportFormat));
+    }
+
     @GetMapping("/{bookingId}")
     public Booking getById(@PathVariable Long bookingId,
             @RequestHeader(USER_ID_HEADER) Long userId) {
@@ -45,20 +78,33 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoWithStatus> getByStateAndUserId(
+    public ResponseEntity<List<BookingDtoWithStatus>> getByStateAndUserId(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(name = "from", defaultValue = "0") int from,
-            @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
-        return bookingService.getByBookerIdAndState(state, userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(name = "after", required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(bookingService.getByBookerIdAndState(state, userId, from, size));
+        }
+        return PageCursor.toResponse(
+                bookingService.getByBookerIdAndStateAfter(state, userId, after, size), size,
+                booking -> new PageCursor(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoWithStatus> getByItemOwnerIdAndState(
+    public ResponseEntity<List<BookingDtoWithStatus>> getByItemOwnerIdAndState(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(name = "from", defaultValue = "0") int from,
-            @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
-        return bookingService.getByItemOwnerIdAndState(state, userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(name = "after", required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(
+                    bookingService.getByItemOwnerIdAndState(state, userId, from, size));
+        }
+        return PageCursor.toResponse(
+                bookingService.getByItemOwnerIdAndStateAfter(state, userId, after, size), size,
+                booking -> new PageCursor(booking.getStart(), booking.getId()));
     }
 }
\ No newline at end of file
@@ -3,5 +3,6 @@ package ru.practicum.shareit.booking;
 public enum BookingState {
     WAITING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
\ No newline at end of file
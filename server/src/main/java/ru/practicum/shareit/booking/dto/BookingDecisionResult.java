@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingState;
+
+@Getter
+@AllArgsConstructor
+public class BookingDecisionResult {
+
+    private final int index;
+    private final Long bookingId;
+    private final BookingState status;
+    private final String error;
+}
\ No newline at end of file
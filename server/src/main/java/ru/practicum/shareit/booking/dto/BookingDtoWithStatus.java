@@ -23,4 +23,11 @@ public class BookingDtoWithStatus {
     private LocalDateTime start;
     private LocalDateTime end;
     private BookingState status;
+
+    public BookingDtoWithStatus(Long id, Long itemId, String itemName, Long bookerId,
+            String bookerName, String bookerEmail, LocalDateTime start, LocalDateTime end,
+            BookingState status) {
+        this(id, new ItemDtoShort(itemId, itemName), new UserDto(bookerId, bookerName, bookerEmail),
+                start, end, status);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.outbox;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "booking_events")
+public class BookingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "type")
+    @Enumerated(EnumType.STRING)
+    private BookingEventType type;
+
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    @Column(name = "published")
+    private LocalDateTime published;
+}
\ No newline at end of file
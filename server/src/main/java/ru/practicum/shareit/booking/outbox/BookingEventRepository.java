@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.outbox;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    List<BookingEvent> findByPublishedIsNullOrderByIdAsc(Pageable pageable);
+
+    Optional<BookingEvent> findFirstByPublishedIsNullOrderByIdAsc();
+
+    long countByPublishedIsNull();
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.outbox;
+
+import java.util.List;
+
+public interface BookingEventSink {
+
+    String getName();
+
+    void publish(List<BookingEvent> events) throws Exception;
+}
\ No newline at end of file
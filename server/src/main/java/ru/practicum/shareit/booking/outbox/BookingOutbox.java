@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookingEvent record(Booking booking, BookingEventType type) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", booking.getId());
+        payload.put("itemId", booking.getItem().getId());
+        payload.put("ownerId", booking.getOwnerId());
+        payload.put("bookerId", booking.getBooker().getId());
+        payload.put("start", booking.getStart());
+        payload.put("end", booking.getEnd());
+        payload.put("status", booking.getStatus());
+        try {
+            return bookingEventRepository.save(new BookingEvent(null, booking.getId(), type,
+                    objectMapper.writeValueAsString(payload), LocalDateTime.now(), null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize booking event.", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains unpublished booking events to the configured sinks in id order.
+ *
+ * <p>A batch is marked as published only after every sink accepted it, in the same
+ * transaction, so a failure leaves the batch in place to be redelivered on the next run.
+ *
+ * <p>The pending and lag gauges read the backlog measured at the end of the last run, so metric
+ * scrapes do not query the database.
+ */
+@Component
+@Slf4j
+public class BookingOutboxRelay {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<BookingEventSink> sinks;
+    private final int batchSize;
+    private final Counter publishedCounter;
+    private final Counter failuresCounter;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<LocalDateTime> oldestPendingCreated = new AtomicReference<>();
+
+    public BookingOutboxRelay(BookingEventRepository bookingEventRepository,
+            TransactionTemplate transactionTemplate, List<BookingEventSink> sinks,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.outbox.sinks}") String[] sinkNames,
+            @Value("${shareit.outbox.batch-size}") int batchSize) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        List<String> enabled = Arrays.asList(sinkNames);
+        this.sinks = sinks.stream()
+                          .filter(sink -> enabled.contains(sink.getName()))
+                          .collect(Collectors.toList());
+        this.batchSize = batchSize;
+        this.publishedCounter = meterRegistry.counter("booking.outbox.published");
+        this.failuresCounter = meterRegistry.counter("booking.outbox.failures");
+        Gauge.builder("booking.outbox.pending", pending, AtomicLong::get)
+             .register(meterRegistry);
+        Gauge.builder("booking.outbox.lag", this, BookingOutboxRelay::lagSeconds)
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-delay}")
+    public void relay() {
+        Integer published;
+        do {
+            try {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } catch (RuntimeException e) {
+                failuresCounter.increment();
+                log.warn("Booking events relay failed, will retry", e);
+                break;
+            }
+        } while (published != null && published == batchSize);
+        measureBacklog();
+    }
+
+    private int publishBatch() {
+        List<BookingEvent> events = bookingEventRepository.findByPublishedIsNullOrderByIdAsc(
+                PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        for (BookingEventSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                throw new IllegalStateException("Sink " + sink.getName() + " failed", e);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> event.setPublished(now));
+        publishedCounter.increment(events.size());
+        log.debug("Published {} booking events", events.size());
+        return events.size();
+    }
+
+    private void measureBacklog() {
+        try {
+            pending.set(bookingEventRepository.countByPublishedIsNull());
+            oldestPendingCreated.set(bookingEventRepository.findFirstByPublishedIsNullOrderByIdAsc()
+                                                           .map(BookingEvent::getCreated)
+                                                           .orElse(null));
+        } catch (RuntimeException e) {
+            log.warn("Booking events backlog could not be measured", e);
+        }
+    }
+
+    private double lagSeconds() {
+        LocalDateTime created = oldestPendingCreated.get();
+        if (created == null) {
+            return 0.0;
+        }
+        return Duration.between(created, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
\ No newline at end of file
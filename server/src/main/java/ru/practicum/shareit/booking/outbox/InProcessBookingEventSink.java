@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.outbox;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class InProcessBookingEventSink implements BookingEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String getName() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<BookingEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "bookingexpiry")
+@RequiredArgsConstructor
+public class BookingExpiryEndpoint {
+
+    private final BookingExpirySweeper bookingExpirySweeper;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("paused", bookingExpirySweeper.isPaused());
+        status.put("lastSweep", bookingExpirySweeper.getLastSweep());
+        status.put("expiredTotal", bookingExpirySweeper.getExpiredTotal());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> setPaused(boolean paused) {
+        bookingExpirySweeper.setPaused(paused);
+        return status();
+    }
+}
\ No newline at end of file
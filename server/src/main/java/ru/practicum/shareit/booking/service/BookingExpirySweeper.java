@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+/**
+ * Moves WAITING bookings whose start has passed to EXPIRED, one bounded chunk per transaction.
+ */
+@Component
+@Slf4j
+public class BookingExpirySweeper {
+
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter expiredCounter;
+    private volatile boolean paused;
+    private volatile LocalDateTime lastSweep;
+
+    public BookingExpirySweeper(BookingRepository bookingRepository,
+            BookingIntervalIndex bookingIntervalIndex, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.bookings.expiry-chunk-size}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.expiredCounter = meterRegistry.counter("booking.expiry.expired");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.expiry-sweep-delay}")
+    public void sweep() {
+        if (paused) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        List<Long> ids;
+        do {
+            ids = bookingRepository.findIdsByStatusAndStartBefore(BookingState.WAITING, now,
+                    PageRequest.of(0, chunkSize));
+            List<Long> chunk = ids;
+            List<Long> expired = transactionTemplate.execute(status -> {
+                bookingRepository.updateStatus(chunk, List.of(BookingState.WAITING),
+                        BookingState.EXPIRED);
+                // Bookings decided since the select keep their status and stay indexed.
+                return bookingRepository.findIdsByIdInAndStatus(chunk, BookingState.EXPIRED);
+            });
+            expired.forEach(bookingIntervalIndex::remove);
+            expiredCounter.increment(expired.size());
+            total += expired.size();
+        } while (ids.size() == chunkSize && !paused);
+        lastSweep = now;
+        if (total > 0) {
+            log.info("Expired {} waiting bookings", total);
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        log.info("Booking expiry sweeper {}", paused ? "paused" : "resumed");
+    }
+
+    public LocalDateTime getLastSweep() {
+        return lastSweep;
+    }
+
+    public double getExpiredTotal() {
+        return expiredCounter.count();
+    }
+}
\ No newline at end of file
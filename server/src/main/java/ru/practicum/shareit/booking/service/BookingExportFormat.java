@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+public enum BookingExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    BookingExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static BookingExportFormat from(String format) {
+        for (BookingExportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Unknown format: " + format);
+    }
+}
\ No newline at end of file
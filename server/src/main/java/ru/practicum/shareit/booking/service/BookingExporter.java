@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDtoWithStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingSpecifications;
+
+/**
+ * Writes bookings to a stream row by row from a scrolled query.
+ *
+ * <p>The persistence context is cleared after every fetch, so memory use does not grow with
+ * the size of the history.
+ */
+@Component
+public class BookingExporter {
+
+    private static final String CSV_HEADER =
+            "id,itemId,itemName,bookerId,bookerName,bookerEmail,start,end,status\n";
+
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public BookingExporter(BookingRepository bookingRepository, EntityManager entityManager,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${shareit.bookings.export-fetch-size}") int fetchSize) {
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(Specification<Booking> specification, BookingExportFormat format,
+            OutputStream outputStream) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Booking> bookings = bookingRepository.streamAll(specification,
+                    BookingSpecifications.START_DESC, fetchSize)) {
+                Writer writer = new BufferedWriter(
+                        new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                if (format == BookingExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+                Iterator<Booking> iterator = bookings.iterator();
+                long count = 0;
+                while (iterator.hasNext()) {
+                    Booking booking = iterator.next();
+                    if (format == BookingExportFormat.CSV) {
+                        writeCsv(writer, booking);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(toDto(booking)));
+                        writer.write('\n');
+                    }
+                    if (++count % fetchSize == 0) {
+                        writer.flush();
+                        entityManager.clear();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsv(Writer writer, Booking booking) throws IOException {
+        writer.write(booking.getId() + "," + booking.getItem().getId() + ","
+                + escape(booking.getItem().getName()) + "," + booking.getBooker().getId() + ","
+                + escape(booking.getBooker().getName()) + ","
+                + escape(booking.getBooker().getEmail()) + "," + format(booking.getStart()) + ","
+                + format(booking.getEnd()) + "," + booking.getStatus() + "\n");
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")
+                || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? "" : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+    }
+
+    private static BookingDtoWithStatus toDto(Booking booking) {
+        return new BookingDtoWithStatus(booking.getId(), booking.getItem().getId(),
+                booking.getItem().getName(), booking.getBooker().getId(),
+                booking.getBooker().getName(), booking.getBooker().getEmail(), booking.getStart(),
+                booking.getEnd(), booking.getStatus());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+/**
+ * Serializes booking writes per item for the duration of the current transaction.
+ *
+ * <p>{@code DATABASE} takes a row lock on the item, which also covers several server
+ * instances. {@code STRIPED} uses in-process locks and only protects a single instance.
+ */
+@Component
+public class BookingItemLocks {
+
+    private static final int STRIPES = 64;
+
+    private final ItemRepository itemRepository;
+    private final BookingLockMode mode;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public BookingItemLocks(ItemRepository itemRepository,
+            @Value("${shareit.bookings.lock-mode:database}") String mode) {
+        this.itemRepository = itemRepository;
+        this.mode = BookingLockMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lock(long itemId) {
+        switch (mode) {
+            case DATABASE:
+                itemRepository.findByIdForUpdate(itemId);
+                break;
+            case STRIPED:
+                ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(itemId), STRIPES)];
+                lock.lock();
+                TransactionSynchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public void afterCompletion(int status) {
+                                lock.unlock();
+                            }
+                        });
+                break;
+            default:
+                break;
+        }
+    }
+}
\ No newline at end of file
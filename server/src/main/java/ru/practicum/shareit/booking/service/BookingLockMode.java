@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.service;
+
+public enum BookingLockMode {
+    NONE,
+    DATABASE,
+    STRIPED
+}
\ No newline at end of file
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
 import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithStatus;
 
@@ -13,8 +16,19 @@ public interface BookingService {
 
     Booking approveBooking(long id, boolean approved, long userId);
 
+    List<BookingDecisionResult> approveBookings(List<BookingDecisionDto> decisions, long userId);
+
     List<BookingDtoWithStatus> getByBookerIdAndState(String state, long userId, int from, int size);
 
     List<BookingDtoWithStatus> getByItemOwnerIdAndState(String state, long userId, int from,
             int size);
+
+    StreamingResponseBody exportByItemOwnerIdAndState(String state, long userId,
+            BookingExportFormat format);
+
+    List<BookingDtoWithStatus> getByBookerIdAndStateAfter(String state, long userId, String after,
+            int size);
+
+    List<BookingDtoWithStatus> getByItemOwnerIdAndStateAfter(String state, long userId,
+            String after, int size);
 }
\ No newline at end of file
@@ -2,23 +2,46 @@ package ru.practicum.shareit.booking.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithStatus;
+import ru.practicum.shareit.booking.outbox.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingOutbox;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingOccupancyIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingSpecifications;
 import ru.practicum.shareit.booking.utils.BookingMapper;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
@@ -31,6 +54,12 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemCache itemCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingOccupancyIndex bookingOccupancyIndex;
+    private final BookingItemLocks bookingItemLocks;
+    private final BookingOutbox bookingOutbox;
+    private final BookingExporter bookingExporter;
 
     @Override
     public Booking create(long userId, BookingDto bookingDto) {
@@ -42,9 +71,13 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("You can't booking own items.");
         }
         Booking booking = BookingMapper.mapToBooking(bookingDto, item, booker, BookingState.WAITING);
+        bookingItemLocks.lock(item.getId());
         checkItemState(booking, item);
         log.info("Booking successfully added: " + booking.getStart());
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingOutbox.record(savedBooking, BookingEventType.CREATED);
+        bookingIntervalIndex.index(savedBooking);
+        return savedBooking;
     }
 
     @Override
@@ -75,91 +108,158 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(BookingState.APPROVED)) {
             throw new ValidationException("This booking is approved before that.");
         }
+        if (booking.getStatus().equals(BookingState.EXPIRED)) {
+            throw new ValidationException("This booking has expired.");
+        }
         if (approved == true) {
+            bookingItemLocks.lock(item.getId());
+            if (bookingRepository.existsOverlapping(item.getId(), BookingState.APPROVED,
+                    booking.getStart(), booking.getEnd(), booking.getId())) {
+                throw new ConflictException("Booking range overlaps an approved booking.");
+            }
             booking.setStatus(BookingState.APPROVED);
         } else {
             booking.setStatus(BookingState.REJECTED);
         }
         log.info("Approve/rejected booking: " + booking);
-        return bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Booking range overlaps an approved booking.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Booking was changed concurrently.");
+        }
+        bookingOutbox.record(savedBooking, approved ? BookingEventType.APPROVED
+                : BookingEventType.REJECTED);
+        itemRepository.refreshBookingPointers(item.getId(), LocalDateTime.now());
+        itemCache.evict(item.getId());
+        bookingIntervalIndex.index(savedBooking);
+        bookingOccupancyIndex.index(savedBooking);
+        return savedBooking;
+    }
+
+    @Override
+    public List<BookingDecisionResult> approveBookings(List<BookingDecisionDto> decisions,
+            long userId) {
+        containsUser(userId);
+        Set<Long> bookingIds = decisions.stream().map(BookingDecisionDto::getBookingId)
+                                        .filter(Objects::nonNull).collect(Collectors.toSet());
+        // Lock the items first and read the bookings under row locks, so neither another
+        // decision nor the expiry sweep can change a booking between its checks and its update.
+        new TreeSet<>(bookingRepository.findItemIdsByIdInAndOwnerId(bookingIds, userId))
+                .forEach(bookingItemLocks::lock);
+        Map<Long, Booking> bookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllByIdInAndOwnerIdForUpdate(bookingIds,
+                userId)) {
+            bookings.put(booking.getId(), booking);
+        }
+        BookingDecisionResult[] results = new BookingDecisionResult[decisions.size()];
+        Map<Integer, Booking> accepted = new TreeMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            String error = checkDecision(decision, bookings.get(decision.getBookingId()), seen);
+            if (error != null) {
+                results[i] = new BookingDecisionResult(i, decision.getBookingId(), null, error);
+            } else {
+                accepted.put(i, bookings.get(decision.getBookingId()));
+            }
+        }
+        Map<Long, List<Booking>> approvedByItem = new HashMap<>();
+        int approvedCount = 0;
+        Iterator<Map.Entry<Integer, Booking>> iterator = accepted.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Booking> entry = iterator.next();
+            Booking booking = entry.getValue();
+            if (!decisions.get(entry.getKey()).getApproved()) {
+                booking.setStatus(BookingState.REJECTED);
+                continue;
+            }
+            List<Booking> approved = approvedByItem.computeIfAbsent(booking.getItem().getId(),
+                    itemId -> new ArrayList<>());
+            if (approved.stream().anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                    && other.getEnd().isAfter(booking.getStart()))
+                    || bookingRepository.existsOverlapping(booking.getItem().getId(),
+                    BookingState.APPROVED, booking.getStart(), booking.getEnd(), booking.getId())) {
+                results[entry.getKey()] = new BookingDecisionResult(entry.getKey(), booking.getId(),
+                        null, "Booking range overlaps an approved booking.");
+                iterator.remove();
+                continue;
+            }
+            approved.add(booking);
+            booking.setStatus(BookingState.APPROVED);
+            approvedCount++;
+        }
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Booking range overlaps an approved booking.");
+        }
+        Set<Long> itemIds = accepted.values().stream().map(booking -> booking.getItem().getId())
+                                    .collect(Collectors.toSet());
+        itemRepository.refreshBookingPointers(itemIds, LocalDateTime.now());
+        for (Map.Entry<Integer, Booking> entry : accepted.entrySet()) {
+            Booking booking = entry.getValue();
+            bookingOutbox.record(booking, booking.getStatus() == BookingState.APPROVED
+                    ? BookingEventType.APPROVED : BookingEventType.REJECTED);
+            bookingIntervalIndex.index(booking);
+            bookingOccupancyIndex.index(booking);
+            results[entry.getKey()] = new BookingDecisionResult(entry.getKey(), booking.getId(),
+                    booking.getStatus(), null);
+        }
+        itemIds.forEach(itemCache::evict);
+        log.info("Bookings decided by user {}: {} approved, {} rejected of {}", userId,
+                approvedCount, accepted.size() - approvedCount, decisions.size());
+        return Arrays.asList(results);
     }
 
     @Override
     public List<BookingDtoWithStatus> getByBookerIdAndState(String state, long userId, int from,
             int size) {
         containsUser(userId);
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Booking> bookings = new ArrayList<>();
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageRequest);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByBookerIdAndEndIsBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(), pageRequest);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), pageRequest);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId,
-                        BookingState.WAITING, pageRequest);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId,
-                        BookingState.REJECTED, pageRequest);
-                break;
-            default:
-                throw new ValidationException("Unknown state: " + state);
-        }
-        return bookings.stream()
-                       .map(booking -> BookingMapper.toBookingDtoWithStatus(booking))
-                       .collect(Collectors.toList());
+        return findPage(BookingSpecifications.hasBooker(userId), state, null,
+                PageRequest.of(from / size, size, BookingSpecifications.START_DESC));
     }
 
     @Override
     public List<BookingDtoWithStatus> getByItemOwnerIdAndState(String state, long userId, int from,
             int size) {
         containsUser(userId);
-        PageRequest pageRequest = PageRequest.of(from / size, size);
-        List<Booking> bookings = new ArrayList<>();
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageRequest);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        userId,
-                        LocalDateTime.now(), LocalDateTime.now(), pageRequest);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(), pageRequest);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByItemOwnerIdAndStartIsAfterOrderByStartDesc(
-                        userId,
-                        LocalDateTime.now(), pageRequest);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId,
-                        BookingState.WAITING, pageRequest);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId,
-                        BookingState.REJECTED, pageRequest);
-                break;
-            default:
-                throw new ValidationException("Unknown state: " + state);
-        }
-        return bookings.stream()
-                       .map(booking -> BookingMapper.toBookingDtoWithStatus(booking))
-                       .collect(Collectors.toList());
+        return findPage(BookingSpecifications.hasItemOwner(userId), state, null,
+                PageRequest.of(from / size, size, BookingSpecifications.START_DESC));
+    }
+
+    @Override
+    public StreamingResponseBody exportByItemOwnerIdAndState(String state, long userId,
+            BookingExportFormat format) {
+        containsUser(userId);
+        Specification<Booking> specification = BookingSpecifications.inStateBefore(
+                BookingSpecifications.hasItemOwner(userId), state, null, LocalDateTime.now());
+        log.info("Export bookings of owner {} with state {} as {}", userId, state, format);
+        return outputStream -> bookingExporter.export(specification, format, outputStream);
+    }
+
+    @Override
+    public List<BookingDtoWithStatus> getByBookerIdAndStateAfter(String state, long userId,
+            String after, int size) {
+        containsUser(userId);
+        return findPage(BookingSpecifications.hasBooker(userId), state, after,
+                PageRequest.of(0, size, BookingSpecifications.START_DESC));
+    }
+
+    @Override
+    public List<BookingDtoWithStatus> getByItemOwnerIdAndStateAfter(String state, long userId,
+            String after, int size) {
+        containsUser(userId);
+        return findPage(BookingSpecifications.hasItemOwner(userId), state, after,
+                PageRequest.of(0, size, BookingSpecifications.START_DESC));
+    }
+
+    private List<BookingDtoWithStatus> findPage(Specification<Booking> user, String state,
+            String after, PageRequest pageRequest) {
+        return bookingRepository.findAllWithStatus(BookingSpecifications.inStateBefore(user, state,
+                PageCursor.decode(after), LocalDateTime.now()), pageRequest);
     }
 
     private void containsUser(long id) {
@@ -180,10 +280,31 @@ public class BookingServiceImpl implements BookingService {
         return item;
     }
 
+    private String checkDecision(BookingDecisionDto decision, Booking booking, Set<Long> seen) {
+        if (decision.getBookingId() == null || decision.getApproved() == null) {
+            return "It is necessary to fill in all fields.";
+        }
+        if (!seen.add(decision.getBookingId())) {
+            return "Duplicate booking in batch.";
+        }
+        if (booking == null) {
+            return "Booking not found.";
+        }
+        if (booking.getStatus().equals(BookingState.APPROVED)) {
+            return "This booking is approved before that.";
+        }
+        if (booking.getStatus().equals(BookingState.EXPIRED)) {
+            return "This booking has expired.";
+        }
+        if (!booking.getItem().getAvailable()) {
+            return "Item is not available now.";
+        }
+        return null;
+    }
+
     private void checkItemState(Booking booking, Item item) {
-        Booking bookingFromRepository = bookingRepository.findByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(
-                item.getId(), BookingState.APPROVED, booking.getStart(), booking.getEnd());
-        if (bookingFromRepository != null) {
+        if (bookingRepository.existsOverlapping(item.getId(), BookingState.APPROVED,
+                booking.getStart(), booking.getEnd(), 0)) {
             throw new ValidationException("Invalid booking range");
         }
     }
@@ -0,0 +1,226 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+/**
+ * In-memory index of WAITING and APPROVED booking intervals per item.
+ *
+ * <p>Intervals of an item are kept ordered by start together with the longest interval
+ * duration, so all intervals overlapping a range lie between {@code from - maxDuration} and
+ * {@code to} and are found without scanning the whole item.
+ *
+ * <p>The index is built once all beans exist, before the web server accepts requests.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+
+    private static final List<BookingState> ACTIVE_STATES = List.of(BookingState.WAITING,
+            BookingState.APPROVED);
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ItemIntervals> intervalsByItemId = new HashMap<>();
+    private final Map<Long, Interval> intervalsByBookingId = new HashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            intervalsByItemId.clear();
+            intervalsByBookingId.clear();
+            LocalDateTime now = LocalDateTime.now();
+            long lastId = 0;
+            List<Booking> chunk;
+            do {
+                chunk = bookingRepository.findActiveByIdGreaterThan(ACTIVE_STATES, now, lastId,
+                        PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                for (Booking booking : chunk) {
+                    add(Interval.of(booking));
+                    lastId = booking.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            log.info("Booking interval index rebuilt: {} bookings, {} items",
+                    intervalsByBookingId.size(), intervalsByItemId.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the booking as it is now once the current transaction commits.
+     */
+    public void index(Booking booking) {
+        Interval interval = ACTIVE_STATES.contains(booking.getStatus()) ? Interval.of(booking)
+                : null;
+        long bookingId = booking.getId();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(bookingId);
+                if (interval != null) {
+                    add(interval);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(long bookingId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(bookingId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeItem(long itemId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                ItemIntervals intervals = intervalsByItemId.remove(itemId);
+                if (intervals != null) {
+                    intervals.set.forEach(
+                            interval -> intervalsByBookingId.remove(interval.bookingId));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the gaps between WAITING or APPROVED bookings of the item within [from, to).
+     */
+    public List<FreeIntervalDto> findFreeIntervals(long itemId, LocalDateTime from,
+            LocalDateTime to) {
+        List<FreeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        lock.readLock().lock();
+        try {
+            ItemIntervals intervals = intervalsByItemId.get(itemId);
+            if (intervals != null) {
+                NavigableSet<Interval> candidates = intervals.set.subSet(
+                        Interval.probe(from.minus(intervals.maxDuration())), true,
+                        Interval.probe(to), false);
+                for (Interval interval : candidates) {
+                    if (!interval.end.isAfter(cursor)) {
+                        continue;
+                    }
+                    if (interval.start.isAfter(cursor)) {
+                        free.add(new FreeIntervalDto(cursor, interval.start));
+                    }
+                    cursor = interval.end;
+                    if (!cursor.isBefore(to)) {
+                        return free;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        free.add(new FreeIntervalDto(cursor, to));
+        return free;
+    }
+
+    private void add(Interval interval) {
+        intervalsByItemId.computeIfAbsent(interval.itemId, key -> new ItemIntervals())
+                         .add(interval);
+        intervalsByBookingId.put(interval.bookingId, interval);
+    }
+
+    private void delete(long bookingId) {
+        Interval interval = intervalsByBookingId.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        ItemIntervals intervals = intervalsByItemId.get(interval.itemId);
+        if (intervals != null && intervals.remove(interval) && intervals.set.isEmpty()) {
+            intervalsByItemId.remove(interval.itemId);
+        }
+    }
+
+    /**
+     * Intervals of one item with a count per duration, so the longest duration stays exact
+     * when intervals are removed.
+     */
+    private static final class ItemIntervals {
+
+        private final NavigableSet<Interval> set = new TreeSet<>(
+                Comparator.comparing((Interval interval) -> interval.start)
+                          .thenComparingLong(interval -> interval.bookingId));
+        private final NavigableMap<Duration, Integer> durations = new TreeMap<>();
+
+        private void add(Interval interval) {
+            if (set.add(interval)) {
+                durations.merge(interval.duration(), 1, Integer::sum);
+            }
+        }
+
+        private boolean remove(Interval interval) {
+            if (!set.remove(interval)) {
+                return false;
+            }
+            durations.computeIfPresent(interval.duration(), (duration, count) -> count == 1 ? null
+                    : count - 1);
+            return true;
+        }
+
+        private Duration maxDuration() {
+            return durations.isEmpty() ? Duration.ZERO : durations.lastKey();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Interval {
+
+        private final long bookingId;
+        private final long itemId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private static Interval of(Booking booking) {
+            return new Interval(booking.getId(), booking.getItem().getId(), booking.getStart(),
+                    booking.getEnd());
+        }
+
+        private static Interval probe(LocalDateTime start) {
+            return new Interval(Long.MIN_VALUE, 0, start, start);
+        }
+
+        private Duration duration() {
+            return Duration.between(start, end);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,300 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+/**
+ * Hour-granularity occupancy bitmap of APPROVED bookings per item.
+ *
+ * <p>Bit {@code n} of an item is set when an approved booking touches the n-th hour after the
+ * index origin. Hours lying fully inside a requested range decide occupancy on their own; only
+ * the partially covered boundary hours and ranges outside the indexed horizon are verified
+ * against the database.
+ *
+ * <p>Changes are applied once their transaction commits. A rebuild scans the database into a
+ * new snapshot without holding the lock, replays the changes applied meanwhile and then swaps
+ * the snapshot in. Until the first rebuild finishes, every item is verified against the database.
+ */
+@Component
+@Slf4j
+public class BookingOccupancyIndex {
+
+    private static final List<BookingState> OCCUPYING_STATES = List.of(BookingState.APPROVED);
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final int horizonHours;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private Snapshot snapshot;
+    private List<Consumer<Snapshot>> changesDuringRebuild;
+
+    public BookingOccupancyIndex(BookingRepository bookingRepository,
+            @Value("${shareit.item-search.occupancy-horizon-days}") int horizonDays) {
+        this.bookingRepository = bookingRepository;
+        this.horizonHours = horizonDays * 24;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.item-search.occupancy-rebuild-delay}",
+            fixedDelayString = "${shareit.item-search.occupancy-rebuild-delay}")
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Snapshot rebuilt;
+            try {
+                rebuilt = scan();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+                snapshot = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Booking occupancy index rebuilt: {} bookings, {} items",
+                    rebuilt.itemIdByBookingId.size(), rebuilt.occupancyByItemId.size());
+        }
+    }
+
+    /**
+     * Applies the booking as it is now once the current transaction commits.
+     */
+    public void index(Booking booking) {
+        long bookingId = booking.getId();
+        long itemId = booking.getItem().getId();
+        Interval interval = OCCUPYING_STATES.contains(booking.getStatus())
+                ? new Interval(booking.getStart(), booking.getEnd()) : null;
+        AfterCommit.run(() -> apply(target -> {
+            target.delete(bookingId);
+            if (interval != null) {
+                target.add(bookingId, itemId, interval);
+            }
+        }));
+    }
+
+    public void removeItem(long itemId) {
+        AfterCommit.run(() -> apply(target -> target.removeItem(itemId)));
+    }
+
+    /**
+     * Returns the items without APPROVED bookings overlapping [start, end), keeping their order.
+     */
+    public List<Long> filterFree(List<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        List<Long> free = new ArrayList<>();
+        Set<Long> uncertain = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            Snapshot current = snapshot;
+            boolean indexed = current != null && !start.isBefore(current.indexedFrom)
+                    && !end.isAfter(current.origin.plusHours(horizonHours));
+            for (Long itemId : itemIds) {
+                if (!indexed) {
+                    uncertain.add(itemId);
+                    continue;
+                }
+                ItemOccupancy occupancy = current.occupancyByItemId.get(itemId);
+                if (occupancy == null) {
+                    free.add(itemId);
+                } else if (!occupancy.occupiesFullHour(current.firstFullHour(start),
+                        current.hour(end))) {
+                    if (current.occupiesPartialHour(occupancy, start, end)) {
+                        uncertain.add(itemId);
+                    } else {
+                        free.add(itemId);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (uncertain.isEmpty()) {
+            return free;
+        }
+        Set<Long> occupied = new HashSet<>(bookingRepository.findItemIdsWithOverlapping(uncertain,
+                BookingState.APPROVED, start, end));
+        Set<Long> freeSet = new HashSet<>(free);
+        List<Long> result = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (freeSet.contains(itemId)
+                    || uncertain.contains(itemId) && !occupied.contains(itemId)) {
+                result.add(itemId);
+            }
+        }
+        return result;
+    }
+
+    private Snapshot scan() {
+        LocalDateTime now = LocalDateTime.now();
+        Snapshot rebuilt = new Snapshot(now);
+        long lastId = 0;
+        List<Booking> chunk;
+        do {
+            chunk = bookingRepository.findActiveByIdGreaterThan(OCCUPYING_STATES, now, lastId,
+                    PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            for (Booking booking : chunk) {
+                rebuilt.add(booking.getId(), booking.getItem().getId(),
+                        new Interval(booking.getStart(), booking.getEnd()));
+                lastId = booking.getId();
+            }
+        } while (chunk.size() == REBUILD_CHUNK_SIZE);
+        return rebuilt;
+    }
+
+    private void apply(Consumer<Snapshot> change) {
+        lock.writeLock().lock();
+        try {
+            if (snapshot != null) {
+                change.accept(snapshot);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private final class Snapshot {
+
+        private final LocalDateTime origin;
+        private final LocalDateTime indexedFrom;
+        private final Map<Long, ItemOccupancy> occupancyByItemId = new HashMap<>();
+        private final Map<Long, Long> itemIdByBookingId = new HashMap<>();
+
+        private Snapshot(LocalDateTime now) {
+            this.origin = now.truncatedTo(ChronoUnit.DAYS);
+            this.indexedFrom = now;
+        }
+
+        private void add(long bookingId, long itemId, Interval interval) {
+            if (!interval.end.isAfter(origin)) {
+                return;
+            }
+            ItemOccupancy occupancy = occupancyByItemId.computeIfAbsent(itemId,
+                    key -> new ItemOccupancy());
+            occupancy.intervals.put(bookingId, interval);
+            if (firstHour(interval) < lastHourExclusive(interval)) {
+                occupancy.hours.set(firstHour(interval), lastHourExclusive(interval));
+            }
+            itemIdByBookingId.put(bookingId, itemId);
+        }
+
+        private void delete(long bookingId) {
+            Long itemId = itemIdByBookingId.remove(bookingId);
+            if (itemId == null) {
+                return;
+            }
+            ItemOccupancy occupancy = occupancyByItemId.get(itemId);
+            Interval removed = occupancy.intervals.remove(bookingId);
+            if (occupancy.intervals.isEmpty()) {
+                occupancyByItemId.remove(itemId);
+                return;
+            }
+            int from = firstHour(removed);
+            int to = lastHourExclusive(removed);
+            if (from >= to) {
+                return;
+            }
+            occupancy.hours.clear(from, to);
+            for (Interval interval : occupancy.intervals.values()) {
+                int first = Math.max(firstHour(interval), from);
+                int last = Math.min(lastHourExclusive(interval), to);
+                if (first < last) {
+                    occupancy.hours.set(first, last);
+                }
+            }
+        }
+
+        private void removeItem(long itemId) {
+            ItemOccupancy occupancy = occupancyByItemId.remove(itemId);
+            if (occupancy != null) {
+                occupancy.intervals.keySet().forEach(itemIdByBookingId::remove);
+            }
+        }
+
+        private boolean occupiesPartialHour(ItemOccupancy occupancy, LocalDateTime start,
+                LocalDateTime end) {
+            return origin.plusHours(hour(start)).isBefore(start)
+                    && occupancy.hours.get((int) hour(start))
+                    || origin.plusHours(hour(end)).isBefore(end)
+                    && occupancy.hours.get((int) hour(end));
+        }
+
+        private int firstHour(Interval interval) {
+            return (int) Math.max(hour(interval.start), 0);
+        }
+
+        private int lastHourExclusive(Interval interval) {
+            return (int) Math.min(firstFullHour(interval.end), horizonHours);
+        }
+
+        private long hour(LocalDateTime dateTime) {
+            return ChronoUnit.HOURS.between(origin, dateTime);
+        }
+
+        private long firstFullHour(LocalDateTime dateTime) {
+            long hour = hour(dateTime);
+            return origin.plusHours(hour).isBefore(dateTime) ? hour + 1 : hour;
+        }
+    }
+
+    private static final class ItemOccupancy {
+
+        private final BitSet hours = new BitSet();
+        private final Map<Long, Interval> intervals = new HashMap<>();
+
+        private boolean occupiesFullHour(long from, long to) {
+            if (from >= to) {
+                return false;
+            }
+            int next = hours.nextSetBit((int) from);
+            return next >= 0 && next < to;
+        }
+    }
+
+    private static final class Interval {
+
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
\ No newline at end of file
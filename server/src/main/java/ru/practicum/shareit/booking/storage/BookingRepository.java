@@ -1,56 +1,61 @@
 package ru.practicum.shareit.booking.storage;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingState;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    List<Booking> findByBookerIdOrderByStartDesc(long userId, Pageable pageable);
+    @Query("select case when count(b) > 0 then true else false end from Booking b "
+            + "where b.item.id = :itemId and b.status = :status "
+            + "and b.start < :end and b.end > :start and b.id <> :excludedId")
+    boolean existsOverlapping(long itemId, BookingState status, LocalDateTime start,
+            LocalDateTime end, long excludedId);
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(long bookerId,
-            LocalDateTime now,
-            LocalDateTime today, Pageable pageable);
+    @Query("select distinct b.item.id from Booking b where b.id in :ids and b.ownerId = :ownerId")
+    List<Long> findItemIdsByIdInAndOwnerId(Collection<Long> ids, long ownerId);
 
-    List<Booking> findByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime now,
-            Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartIsAfterOrderByStartDesc(long bookerId, LocalDateTime now,
-            Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in :ids and b.ownerId = :ownerId order by b.id")
+    List<Booking> findAllByIdInAndOwnerIdForUpdate(Collection<Long> ids, long ownerId);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(long ownerId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(long ownerId,
-            LocalDateTime now,
-            LocalDateTime today, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndIsBeforeOrderByStartDesc(long ownerId, LocalDateTime now,
-            Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartIsAfterOrderByStartDesc(long ownerId, LocalDateTime now,
-            Pageable pageable);
-
-    Booking findByItemIdAndStatusAndStartIsBeforeAndEndIsAfter(long itemId, BookingState status,
+    @Query("select distinct b.item.id from Booking b where b.item.id in :itemIds "
+            + "and b.status = :status and b.start < :end and b.end > :start")
+    List<Long> findItemIdsWithOverlapping(Collection<Long> itemIds, BookingState status,
             LocalDateTime start, LocalDateTime end);
 
     Optional<Booking> findFirstByItemIdAndBookerIdAndStatusAndEndIsBefore(long itemId,
             long bookerId, BookingState status, LocalDateTime now);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(long bookerId, BookingState status,
-            Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(long ownerId, BookingState status,
+    @Query("select b from Booking b join fetch b.item join fetch b.booker "
+            + "where b.item.id in :itemIds and b.status = :status "
+            + "and (b.start = (select max(l.start) from Booking l "
+            + "where l.item.id = b.item.id and l.status = :status and l.start < :now) "
+            + "or b.start = (select min(n.start) from Booking n "
+            + "where n.item.id = b.item.id and n.status = :status and n.start > :now)) "
+            + "order by b.id")
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime now,
+            BookingState status);
+
+    @Query("select b.id from Booking b where b.status = :status and b.start < :now order by b.id")
+    List<Long> findIdsByStatusAndStartBefore(BookingState status, LocalDateTime now,
             Pageable pageable);
 
-    Booking findFirstByItemIdAndStartIsBeforeAndStatusIsOrderByStartDesc(long itemId,
-            LocalDateTime now, BookingState status);
+    @Query("select b.id from Booking b where b.id in :ids and b.status = :status")
+    List<Long> findIdsByIdInAndStatus(Collection<Long> ids, BookingState status);
 
-    Booking findFirstByItemIdAndStartIsAfterAndStatusIsOrderByStartAsc(long itemId,
-            LocalDateTime now, BookingState status);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker "
+            + "where b.status in :statuses and b.end > :now and b.id > :id order by b.id")
+    List<Booking> findActiveByIdGreaterThan(Collection<BookingState> statuses, LocalDateTime now,
+            long id, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDtoWithStatus;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingDtoWithStatus> findAllWithStatus(Specification<Booking> specification,
+            Pageable pageable);
+
+    Stream<Booking> streamAll(Specification<Booking> specification, Sort sort, int fetchSize);
+
+    int updateStatus(Collection<Long> ids, Collection<BookingState> from, BookingState to);
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDtoWithStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoWithStatus> findAllWithStatus(Specification<Booking> specification,
+            Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoWithStatus> query = builder.createQuery(BookingDtoWithStatus.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        Join<Booking, User> booker = root.join("booker");
+        query.select(builder.construct(BookingDtoWithStatus.class,
+                     root.get("id"), item.get("id"), item.get("name"), booker.get("id"),
+                     booker.get("name"), booker.get("email"), root.get("start"), root.get("end"),
+                     root.get("status")))
+             .where(specification.toPredicate(root, query, builder))
+             .orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        return entityManager.createQuery(query)
+                            .setFirstResult((int) pageable.getOffset())
+                            .setMaxResults(pageable.getPageSize())
+                            .getResultList();
+    }
+
+    @Override
+    public Stream<Booking> streamAll(Specification<Booking> specification, Sort sort,
+            int fetchSize) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        root.fetch("item");
+        root.fetch("booker");
+        query.select(root)
+             .where(specification.toPredicate(root, query, builder))
+             .orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query)
+                            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                            .setHint(QueryHints.HINT_READONLY, true)
+                            .getResultStream();
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, Collection<BookingState> from,
+            BookingState to) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("update Booking b set b.status = :to, "
+                                    + "b.version = b.version + 1 "
+                                    + "where b.id in :ids and b.status in :from")
+                            .setParameter("to", to)
+                            .setParameter("ids", ids)
+                            .setParameter("from", from)
+                            .executeUpdate();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.LocalDateTime;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.PageCursor;
+
+public class BookingSpecifications {
+
+    public static final Sort START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    public static Specification<Booking> inStateBefore(Specification<Booking> user, String state,
+            PageCursor cursor, LocalDateTime now) {
+        return Specification.where(user)
+                            .and(inState(state, now))
+                            .and(startsBefore(cursor));
+    }
+
+    public static Specification<Booking> hasBooker(long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> hasItemOwner(long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("ownerId"), ownerId);
+    }
+
+    private static Specification<Booking> inState(String state, LocalDateTime now) {
+        switch (state) {
+            case "ALL":
+                return (root, query, builder) -> builder.conjunction();
+            case "CURRENT":
+                return (root, query, builder) -> builder.and(
+                        builder.lessThan(root.get("start"), now),
+                        builder.greaterThan(root.get("end"), now));
+            case "PAST":
+                return (root, query, builder) -> builder.lessThan(root.get("end"), now);
+            case "FUTURE":
+                return (root, query, builder) -> builder.greaterThan(root.get("start"), now);
+            case "WAITING":
+                return hasStatus(BookingState.WAITING);
+            case "REJECTED":
+                return hasStatus(BookingState.REJECTED);
+            case "EXPIRED":
+                return hasStatus(BookingState.EXPIRED);
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
+    private static Specification<Booking> startsBefore(PageCursor cursor) {
+        if (cursor == null) {
+            return (root, query, builder) -> builder.conjunction();
+        }
+        if (cursor.getKey() == null) {
+            throw new ValidationException("Invalid page cursor for bookings.");
+        }
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), cursor.getKey()),
+                builder.and(
+                        builder.equal(root.get("start"), cursor.getKey()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    private static Specification<Booking> hasStatus(BookingState status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+}
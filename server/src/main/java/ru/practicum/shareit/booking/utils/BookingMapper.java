@@ -46,6 +46,7 @@ public class BookingMapper {
         Booking booking = new Booking();
         booking.setId(dto.getId());
         booking.setItem(item);
+        booking.setOwnerId(item.getOwnerId());
         booking.setBooker(booker);
         booking.setStatus(state);
         booking.setStart(dto.getStart());
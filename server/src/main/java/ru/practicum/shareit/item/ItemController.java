@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,9 +18,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -32,24 +39,47 @@ public class ItemController {
         return itemService.createItem(userId, item);
     }
 
+    @PostMapping("/batch")
+    public List<ItemImportResult> createItems(@RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestBody List<Item> items) {
+        return itemService.createItems(userId, items);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getById(@RequestHeader(USER_ID_HEADER) Long userId,
             @PathVariable Long itemId) {
         return itemService.getById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getAvailability(@RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
     public List<Item> getByName(@RequestHeader(USER_ID_HEADER) Long userId, @RequestParam("text") String name,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10", required = false) Integer size) {
-        return itemService.getByName(name, userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10", required = false) Integer size,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end) {
+        return itemService.getByName(name, userId, from, size, start, end);
     }
 
     @GetMapping
-    public List<ItemDto> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) Long userId,
+    public ResponseEntity<List<ItemDto>> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10", required = false) Integer size) {
-        return itemService.getAllItemsByUserId(userId, from, size);
+            @RequestParam(name = "size", defaultValue = "10", required = false) Integer size,
+            @RequestParam(name = "after", required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(itemService.getAllItemsByUserId(userId, from, size));
+        }
+        return PageCursor.toResponse(itemService.getAllItemsByUserIdAfter(userId, after, size), size,
+                item -> new PageCursor(null, item.getId()));
     }
 
     @PatchMapping("/{itemId}")
@@ -68,4 +98,12 @@ public class ItemController {
             @PathVariable Long itemId, @RequestBody CommentDtoRequest comment) {
         return itemService.addCommentToItem(userId, itemId, comment);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @RequestParam(name = "size", defaultValue = "10", required = false) Integer size) {
+        return itemService.getComments(itemId, from, size);
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.dto;
 
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CommentDto {
 
     private Long id;
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommentSummary {
+
+    private final long count;
+    private final List<CommentDto> latest;
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FreeIntervalDto {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
\ No newline at end of file
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.dto;
 
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 @Data
+@NoArgsConstructor
 public class ItemDto {
 
     private Long id;
@@ -16,4 +19,16 @@ public class ItemDto {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentsCount;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long ownerId,
+            Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerId = ownerId;
+        this.requestId = requestId;
+        this.comments = new ArrayList<>();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemImportResult {
+
+    private final int index;
+    private final Long id;
+    private final String error;
+}
\ No newline at end of file
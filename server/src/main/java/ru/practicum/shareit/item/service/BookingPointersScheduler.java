@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.service;
+
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingPointersScheduler {
+
+    private final ItemRepository itemRepository;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.roll-forward-delay}")
+    @Transactional
+    public void rollForward() {
+        int updated = itemRepository.rollForwardBookingPointers(LocalDateTime.now());
+        if (updated > 0) {
+            log.info("Rolled forward booking pointers for {} items", updated);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentSummary;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class CommentSummaryCache {
+
+    public static final String CACHE_NAME = "commentSummaries";
+
+    private final CacheManager cacheManager;
+    private final CommentRepository commentRepository;
+
+    @Value("${shareit.comments.summary-size}")
+    private int summarySize;
+
+    public CommentSummary get(long itemId) {
+        return cache().get(itemId, () -> load(itemId));
+    }
+
+    public Map<Long, CommentSummary> getAll(List<Long> itemIds) {
+        Cache cache = cache();
+        Map<Long, CommentSummary> summaries = new HashMap<>();
+        List<Long> missingItemIds = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            CommentSummary summary = cache.get(itemId, CommentSummary.class);
+            if (summary == null) {
+                missingItemIds.add(itemId);
+            } else {
+                summaries.put(itemId, summary);
+            }
+        }
+        if (!missingItemIds.isEmpty()) {
+            Map<Long, List<CommentDto>> latestByItemId =
+                    commentRepository.findLatestDtosByItemIdIn(missingItemIds, summarySize);
+            Map<Long, Long> counts = commentRepository.countByItemIdIn(missingItemIds.stream()
+                    .filter(itemId -> latestByItemId.getOrDefault(itemId, List.of()).size()
+                            == summarySize)
+                    .collect(Collectors.toList()));
+            for (Long itemId : missingItemIds) {
+                List<CommentDto> latest = latestByItemId.getOrDefault(itemId, new ArrayList<>());
+                CommentSummary summary = new CommentSummary(
+                        counts.getOrDefault(itemId, (long) latest.size()), latest);
+                cache.put(itemId, summary);
+                summaries.put(itemId, summary);
+            }
+        }
+        return summaries;
+    }
+
+    public void evict(long itemId) {
+        AfterCommit.run(() -> cache().evict(itemId));
+    }
+
+    private CommentSummary load(long itemId) {
+        List<CommentDto> latest = commentRepository.findDtosByItemId(itemId,
+                PageRequest.of(0, summarySize, CommentRepository.LATEST_FIRST));
+        long count = latest.size() < summarySize ? latest.size() : commentRepository.countByItemId(itemId);
+        return new CommentSummary(count, latest);
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+}
\ No newline at end of file
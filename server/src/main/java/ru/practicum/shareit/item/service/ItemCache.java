@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class ItemCache {
+
+    public static final String ITEMS_CACHE_NAME = "items";
+    public static final String ITEM_VIEWS_CACHE_NAME = "itemViews";
+
+    private final CacheManager cacheManager;
+    private final ItemRepository itemRepository;
+
+    /**
+     * Returns the item fields without its bookings. Only existing items are cached, so an id
+     * that is created later is not answered from a cached miss.
+     */
+    public ItemDto getItem(long itemId) {
+        Cache cache = cache(ITEMS_CACHE_NAME);
+        ItemDto item = cache.get(itemId, ItemDto.class);
+        if (item == null) {
+            item = itemRepository.findDtoById(itemId)
+                                 .orElseThrow(() -> new NotFoundException("Item not found."));
+            cache.put(itemId, item);
+        }
+        return item;
+    }
+
+    public ItemDto getView(long itemId, Supplier<ItemDto> loader) {
+        return cache(ITEM_VIEWS_CACHE_NAME).get(itemId, loader::get);
+    }
+
+    public void evict(long itemId) {
+        AfterCommit.run(() -> {
+            cache(ITEMS_CACHE_NAME).evict(itemId);
+            cache(ITEM_VIEWS_CACHE_NAME).evict(itemId);
+        });
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
\ No newline at end of file
@@ -1,24 +1,38 @@
 package ru.practicum.shareit.item.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Item;
 
 public interface ItemService {
 
     Item createItem(long userId, Item item);
 
+    List<ItemImportResult> createItems(long userId, List<Item> items);
+
     ItemDto getById(long userId, long itemId);
 
-    List<Item> getByName(String title,long userId, int from, int size);
+    List<Item> getByName(String title,long userId, int from, int size, LocalDateTime start,
+            LocalDateTime end);
 
     List<ItemDto> getAllItemsByUserId(long userId, int from, int size);
 
+    List<ItemDto> getAllItemsByUserIdAfter(long userId, String after, int size);
+
     Item updateItem(long userId, long itemId, Item item);
 
     Item deleteItem(long itemId);
 
+    void deleteItemsByOwnerId(long ownerId);
+
     CommentDto addCommentToItem(long userId, long itemId, CommentDtoRequest comment);
+
+    List<CommentDto> getComments(long itemId, int from, int size);
+
+    List<FreeIntervalDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
@@ -2,10 +2,15 @@ package ru.practicum.shareit.item.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
@@ -14,19 +19,26 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingOccupancyIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.booking.utils.BookingMapper;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.CommentSummary;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
 import ru.practicum.shareit.item.utils.CommentMapper;
 import ru.practicum.shareit.item.utils.ItemMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
@@ -36,64 +48,122 @@ import ru.practicum.shareit.user.storage.UserRepository;
 @Transactional
 public class ItemServiceImpl implements ItemService {
 
+    private static final int SEARCH_CHUNK_SIZE = 100;
+
     private final Sort sort = Sort.by(Direction.ASC, "id");
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final CommentSummaryCache commentSummaryCache;
+    private final ItemCache itemCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingOccupancyIndex bookingOccupancyIndex;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
 
+    @Value("${shareit.items.import-batch-size}")
+    private int importBatchSize;
+
     @Override
     public Item createItem(long userId, Item item) {
         containsUser(userId);
         item.setOwnerId(userId);
-        log.info("Item successfully added: " + item);
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        log.info("Item successfully added: " + savedItem);
+        return savedItem;
     }
 
     @Override
-    public ItemDto getById(long userId, long itemId) {
-        Item item = itemRepository.findById(itemId)
-                                  .orElseThrow(() -> new NotFoundException("Item not found."));
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
-        List<CommentDto> commentsDto = null;
-        if (comments.size() > 0) {
-            commentsDto = comments.stream()
-                                  .map(comment -> commentMapper.toCommentDto(comment))
-                                  .collect(Collectors.toList());
+    public List<ItemImportResult> createItems(long userId, List<Item> items) {
+        containsUser(userId);
+        List<ItemImportResult> results = new ArrayList<>();
+        List<Item> validItems = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            try {
+                validateItem(item);
+            } catch (ValidationException e) {
+                results.add(new ItemImportResult(i, null, e.getMessage()));
+                continue;
+            }
+            item.setId(null);
+            item.setOwnerId(userId);
+            validItems.add(item);
+            validIndexes.add(i);
         }
-        if (userId == item.getOwnerId()) {
-            Booking lastBooking = bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusIsOrderByStartDesc(itemId, LocalDateTime.now(), BookingState.APPROVED);
+        itemRepository.saveAllInBatches(validItems, importBatchSize);
+        for (int i = 0; i < validItems.size(); i++) {
+            Item savedItem = validItems.get(i);
+            itemSearchIndex.index(savedItem);
+            results.add(new ItemImportResult(validIndexes.get(i), savedItem.getId(), null));
+        }
+        results.sort(Comparator.comparingInt(ItemImportResult::getIndex));
+        log.info("Items imported for user {}: {} of {}", userId, validItems.size(), items.size());
+        return results;
+    }
+
+    @Override
+    public ItemDto getById(long userId, long itemId) {
+        ItemDto cachedItem = itemCache.getItem(itemId);
+        if (userId == cachedItem.getOwnerId()) {
+            Item item = itemRepository.findWithBookingsById(itemId)
+                                      .orElseThrow(() -> new NotFoundException("Item not found."));
+            LocalDateTime now = LocalDateTime.now();
+            if (item.getNextBooking() != null && !item.getNextBooking().getStart().isAfter(now)) {
+                // The scheduler has not rolled the pointers forward yet, so look the bookings up.
+                ItemDto itemWithBooking = mapToItemsDtoWithBookings(List.of(item), now).get(0);
+                log.info("Get item with bookings: " + itemWithBooking);
+                return itemWithBooking;
+            }
+            CommentSummary commentSummary = commentSummaryCache.get(itemId);
+            Booking lastBooking = item.getLastBooking();
             BookingDto lastBookingDto = null;
             if (lastBooking != null) {
                 lastBookingDto = bookingMapper.mapToBookingDto(lastBooking);
             }
-            Booking nextBooking = bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusIsOrderByStartAsc(
-                    itemId, LocalDateTime.now(), BookingState.APPROVED);
+            Booking nextBooking = item.getNextBooking();
             BookingDto nextBookingDto = null;
             if (nextBooking != null) {
                 nextBookingDto = bookingMapper.mapToBookingDto(nextBooking);
             }
             ItemDto itemWithBooking = itemMapper.mapToItemDtoWithBookings(item, lastBookingDto,
-                    nextBookingDto, commentsDto);
+                    nextBookingDto, commentSummary.getLatest());
+            itemWithBooking.setCommentsCount(commentSummary.getCount());
             log.info("Get item with bookings: " + itemWithBooking);
             return itemWithBooking;
         }
-        log.info("Get item: " + item);
-        return itemMapper.mapToItemDto(item, commentsDto);
+        log.info("Get item: " + cachedItem);
+        return itemCache.getView(itemId, () -> {
+            CommentSummary commentSummary = commentSummaryCache.get(itemId);
+            ItemDto itemDto = itemMapper.mapToItemDto(itemMapper.mapToItem(cachedItem),
+                    commentSummary.getLatest());
+            itemDto.setCommentsCount(commentSummary.getCount());
+            return itemDto;
+        });
     }
 
     @Override
-    public List<Item> getByName(String name, long userId, int from, int size) {
+    public List<Item> getByName(String name, long userId, int from, int size,
+            LocalDateTime start, LocalDateTime end) {
         containsUser(userId);
         if (name.isBlank()) {
             log.info("Get list with empty items name.");
             return new ArrayList<>();
         }
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
-        List<Item> items = itemRepository.findAllByName(name, pageRequest);
+        List<Item> items;
+        if (start != null || end != null) {
+            items = findAllByIdInOrder(findAvailableIdsByName(name, from, size, start, end));
+        } else if (itemSearchIndex.isReady()) {
+            items = findAllByIdInOrder(itemSearchIndex.search(name, from, size));
+        } else {
+            PageRequest pageRequest = PageRequest.of(from / size, size);
+            items = itemRepository.findAllByName(name, pageRequest);
+        }
         log.info("Get items by name: " + items);
         return items;
     }
@@ -105,14 +175,27 @@ public class ItemServiceImpl implements ItemService {
         List<Item> items = itemRepository.findAllByOwnerId(userId, pageRequest);
         List<ItemDto> itemsDto = new ArrayList<>();
         if (!items.isEmpty()) {
-            itemsDto = items.stream()
-                 .map(i -> getById(userId, i.getId()))
-                 .collect(Collectors.toList());
+            itemsDto = mapToItemsDtoWithBookings(items, LocalDateTime.now());
         }
         log.info("Get items by user id: " + itemsDto);
         return itemsDto;
     }
 
+    @Override
+    public List<ItemDto> getAllItemsByUserIdAfter(long userId, String after, int size) {
+        containsUser(userId);
+        PageCursor cursor = PageCursor.decode(after);
+        long lastId = cursor == null ? 0 : cursor.getId();
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, lastId,
+                PageRequest.of(0, size, sort));
+        List<ItemDto> itemsDto = new ArrayList<>();
+        if (!items.isEmpty()) {
+            itemsDto = mapToItemsDtoWithBookings(items, LocalDateTime.now());
+        }
+        log.info("Get items by user id after cursor: " + itemsDto);
+        return itemsDto;
+    }
+
     @Override
     public Item updateItem(long userId, long itemId, Item item) {
         containsUser(userId);
@@ -132,8 +215,11 @@ public class ItemServiceImpl implements ItemService {
         if (item.getAvailable() != null) {
             itemFromRepository.setAvailable(item.getAvailable());
         }
-        log.info("Item updated: " + itemFromRepository);
-        return itemRepository.save(itemFromRepository);
+        Item updatedItem = itemRepository.save(itemFromRepository);
+        itemSearchIndex.index(updatedItem);
+        itemCache.evict(itemId);
+        log.info("Item updated: " + updatedItem);
+        return updatedItem;
     }
 
     @Override
@@ -142,9 +228,21 @@ public class ItemServiceImpl implements ItemService {
                                   .orElseThrow(() -> new NotFoundException("Item not found."));
         log.info("Deleted item with id: {}", itemId);
         itemRepository.delete(item);
+        forgetItem(itemId);
         return item;
     }
 
+    @Override
+    public void deleteItemsByOwnerId(long ownerId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(ownerId);
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        itemRepository.deleteAllByIdInBatch(itemIds);
+        itemIds.forEach(this::forgetItem);
+        log.info("Deleted {} items of user with id: {}", itemIds.size(), ownerId);
+    }
+
     @Override
     public CommentDto addCommentToItem(long userId, long itemId,
             CommentDtoRequest commentDtoRequest) {
@@ -164,7 +262,129 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = commentMapper.toComment(user, item, commentDtoRequest,
                 LocalDateTime.now());
         log.info("Add comment: " + comment);
-        return commentMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto commentDto = commentMapper.toCommentDto(commentRepository.save(comment));
+        commentSummaryCache.evict(itemId);
+        itemCache.evict(itemId);
+        return commentDto;
+    }
+
+    @Override
+    public List<CommentDto> getComments(long itemId, int from, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found.");
+        }
+        PageRequest pageRequest = PageRequest.of(from / size, size, CommentRepository.LATEST_FIRST);
+        List<CommentDto> comments = commentRepository.findDtosByItemId(itemId, pageRequest);
+        log.info("Get comments by item id: " + itemId);
+        return comments;
+    }
+
+    @Override
+    public List<FreeIntervalDto> getAvailability(long itemId, LocalDateTime from,
+            LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("Availability range start must be before its end.");
+        }
+        itemCache.getItem(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        if (!to.isAfter(now)) {
+            log.info("Get availability of item {} for a past range", itemId);
+            return new ArrayList<>();
+        }
+        // Ended bookings are not indexed, so the past part of the range is left out.
+        List<FreeIntervalDto> freeIntervals = bookingIntervalIndex.findFreeIntervals(itemId,
+                from.isBefore(now) ? now : from, to);
+        log.info("Get availability of item {} from {} to {}", itemId, from, to);
+        return freeIntervals;
+    }
+
+    private List<Long> findAvailableIdsByName(String name, int from, int size,
+            LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Search range start must be before its end.");
+        }
+        List<Long> available = new ArrayList<>();
+        int offset = 0;
+        List<Long> chunk;
+        do {
+            if (itemSearchIndex.isReady()) {
+                chunk = itemSearchIndex.search(name, offset, SEARCH_CHUNK_SIZE);
+            } else {
+                PageRequest pageRequest = PageRequest.of(offset / SEARCH_CHUNK_SIZE,
+                        SEARCH_CHUNK_SIZE);
+                chunk = itemRepository.findAllByName(name, pageRequest)
+                                      .stream()
+                                      .map(Item::getId)
+                                      .collect(Collectors.toList());
+            }
+            available.addAll(bookingOccupancyIndex.filterFree(chunk, start, end));
+            offset += SEARCH_CHUNK_SIZE;
+        } while (chunk.size() == SEARCH_CHUNK_SIZE && available.size() < from + size);
+        return available.subList(Math.min(from, available.size()),
+                Math.min(from + size, available.size()));
+    }
+
+    private List<Item> findAllByIdInOrder(List<Long> itemIds) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds)
+                                                  .stream()
+                                                  .collect(Collectors.toMap(Item::getId, item -> item));
+        return itemIds.stream()
+                      .map(itemsById::get)
+                      .filter(Objects::nonNull)
+                      .collect(Collectors.toList());
+    }
+
+    private List<ItemDto> mapToItemsDtoWithBookings(List<Item> items, LocalDateTime now) {
+        List<Long> itemIds = items.stream()
+                                  .map(Item::getId)
+                                  .collect(Collectors.toList());
+        Map<Long, CommentSummary> commentSummaries = commentSummaryCache.getAll(itemIds);
+        Map<Long, BookingDto> lastBookings = new HashMap<>();
+        Map<Long, BookingDto> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(itemIds, now,
+                BookingState.APPROVED)) {
+            Map<Long, BookingDto> bookings = booking.getStart().isBefore(now) ? lastBookings : nextBookings;
+            bookings.putIfAbsent(booking.getItem().getId(), bookingMapper.mapToBookingDto(booking));
+        }
+        List<ItemDto> itemsDto = new ArrayList<>();
+        for (Item item : items) {
+            CommentSummary commentSummary = commentSummaries.get(item.getId());
+            ItemDto itemDto = itemMapper.mapToItemDtoWithBookings(item,
+                    lastBookings.get(item.getId()), nextBookings.get(item.getId()),
+                    commentSummary.getLatest());
+            itemDto.setCommentsCount(commentSummary.getCount());
+            itemsDto.add(itemDto);
+        }
+        return itemsDto;
+    }
+
+    private void forgetItem(long itemId) {
+        itemSearchIndex.remove(itemId);
+        commentSummaryCache.evict(itemId);
+        itemCache.evict(itemId);
+        bookingIntervalIndex.removeItem(itemId);
+        bookingOccupancyIndex.removeItem(itemId);
+    }
+
+    private void validateItem(Item item) {
+        if (item == null) {
+            throw new ValidationException("Item can't be empty.");
+        }
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new ValidationException("Item name can't be empty.");
+        }
+        if (item.getName().length() > 255) {
+            throw new ValidationException("Item name can't be longer than 255 characters.");
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            throw new ValidationException("Item description can't be empty.");
+        }
+        if (item.getDescription().length() > 200) {
+            throw new ValidationException("Item description can't be longer than 200 characters.");
+        }
+        if (item.getAvailable() == null) {
+            throw new ValidationException("Item availability must be set.");
+        }
     }
 
     private void containsUser(long id) {
@@ -1,10 +1,20 @@
 package ru.practicum.shareit.item.storage;
 
 import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
 
-    List<Comment> findAllByItemId(long itemId);
+    Sort LATEST_FIRST = Sort.by(Sort.Direction.DESC, "created", "id");
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) "
+            + "from Comment c join c.author a where c.item.id = :itemId")
+    List<CommentDto> findDtosByItemId(long itemId, Pageable pageable);
+
+    long countByItemId(long itemId);
 }
\ No newline at end of file
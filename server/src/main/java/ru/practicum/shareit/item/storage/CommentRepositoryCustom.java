@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+public interface CommentRepositoryCustom {
+
+    Map<Long, List<CommentDto>> findLatestDtosByItemIdIn(Collection<Long> itemIds, int limit);
+
+    Map<Long, Long> countByItemIdIn(Collection<Long> itemIds);
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.storage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+@RequiredArgsConstructor
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+    private static final String COUNT_BY_ITEM_IDS = "select c.item.id, count(c) from Comment c "
+            + "where c.item.id in :itemIds group by c.item.id";
+    private static final String FIND_LATEST_BY_ITEM_IDS = "select item_id, id, text, author_name, "
+            + "create_date from (select c.item_id, c.id, c.text, u.name as author_name, "
+            + "c.create_date, row_number() over (partition by c.item_id "
+            + "order by c.create_date desc, c.id desc) as position "
+            + "from comments c join users u on u.id = c.user_id "
+            + "where c.item_id in :itemIds) latest "
+            + "where position <= :limit order by item_id, position";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Map<Long, List<CommentDto>> findLatestDtosByItemIdIn(Collection<Long> itemIds,
+            int limit) {
+        Map<Long, List<CommentDto>> commentsByItemId = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return commentsByItemId;
+        }
+        List<?> rows = entityManager.createNativeQuery(FIND_LATEST_BY_ITEM_IDS)
+                                    .setParameter("itemIds", itemIds)
+                                    .setParameter("limit", limit)
+                                    .getResultList();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            CommentDto comment = new CommentDto(((Number) columns[1]).longValue(),
+                    (String) columns[2], (String) columns[3], toLocalDateTime(columns[4]));
+            commentsByItemId.computeIfAbsent(((Number) columns[0]).longValue(),
+                    itemId -> new ArrayList<>()).add(comment);
+        }
+        return commentsByItemId;
+    }
+
+    @Override
+    public Map<Long, Long> countByItemIdIn(Collection<Long> itemIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return counts;
+        }
+        List<Object[]> rows = entityManager.createQuery(COUNT_BY_ITEM_IDS, Object[].class)
+                                           .setParameter("itemIds", itemIds)
+                                           .getResultList();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,50 @@
 package ru.practicum.shareit.item.storage;
 
 import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
-    @Query(value = "select * from items i where (lower(i.name) like lower(concat('%', :name,'%')) or lower(i.description) like lower(concat('%', :name,'%'))) and i.available = true", nativeQuery = true)
+    @Query(value = "select * from items i "
+            + "where (lower(i.name) like lower(concat('%', :name, '%')) "
+            + "or lower(i.description) like lower(concat('%', :name, '%'))) and i.available = true "
+            + "order by case when lower(i.name) = lower(:name) then 0 "
+            + "when lower(i.name) like lower(concat(:name, '%')) then 1 "
+            + "when lower(i.name) like lower(concat('%', :name, '%')) then 2 "
+            + "else 3 end, i.id", nativeQuery = true)
     List<Item> findAllByName(String name, Pageable pageable);
 
     List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
+    List<Item> findAllByOwnerIdAndIdGreaterThan(Long ownerId, Long id, Pageable pageable);
+
+    @Query("select i.id from Item i where i.ownerId = :ownerId")
+    List<Long> findIdsByOwnerId(long ownerId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, "
+            + "i.available, i.ownerId, i.requestId) from Item i where i.requestId = :requestId")
+    List<ItemDto> findDtosByRequestId(Long requestId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, "
+            + "i.available, i.ownerId, i.requestId) from Item i where i.id = :itemId")
+    Optional<ItemDto> findDtoById(long itemId);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select i from Item i "
+            + "left join fetch i.lastBooking lb left join fetch lb.booker "
+            + "left join fetch i.nextBooking nb left join fetch nb.booker "
+            + "where i.id = :itemId")
+    Optional<Item> findWithBookingsById(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(long itemId);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.storage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import ru.practicum.shareit.item.model.Item;
+
+public interface ItemRepositoryCustom {
+
+    int refreshBookingPointers(long itemId, LocalDateTime now);
+
+    int refreshBookingPointers(Collection<Long> itemIds, LocalDateTime now);
+
+    int rollForwardBookingPointers(LocalDateTime now);
+
+    List<Item> saveAllInBatches(List<Item> items, int batchSize);
+}
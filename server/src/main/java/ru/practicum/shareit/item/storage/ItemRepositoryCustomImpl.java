@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.storage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+
+@RequiredArgsConstructor
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final String REFRESH_BOOKING_POINTERS = "update items set "
+            + "last_booking_id = (select b.id from bookings b where b.item_id = items.id "
+            + "and b.status = 'APPROVED' and b.start_booking < :now "
+            + "order by b.start_booking desc, b.id desc fetch first 1 rows only), "
+            + "next_booking_id = (select b.id from bookings b where b.item_id = items.id "
+            + "and b.status = 'APPROVED' and b.start_booking > :now "
+            + "order by b.start_booking, b.id fetch first 1 rows only) ";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int refreshBookingPointers(long itemId, LocalDateTime now) {
+        return refreshBookingPointers(List.of(itemId), now);
+    }
+
+    @Override
+    public int refreshBookingPointers(Collection<Long> itemIds, LocalDateTime now) {
+        entityManager.flush();
+        int updated = itemIds.isEmpty() ? 0
+                : entityManager.createNativeQuery(REFRESH_BOOKING_POINTERS
+                                       + "where items.id in :itemIds")
+                               .setParameter("now", now)
+                               .setParameter("itemIds", itemIds)
+                               .executeUpdate();
+        return updated;
+    }
+
+    @Override
+    public int rollForwardBookingPointers(LocalDateTime now) {
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(REFRESH_BOOKING_POINTERS
+                                           + "where items.next_booking_id in "
+                                           + "(select b.id from bookings b where b.start_booking <= :now)")
+                                   .setParameter("now", now)
+                                   .executeUpdate();
+        return updated;
+    }
+
+    @Override
+    public List<Item> saveAllInBatches(List<Item> items, int batchSize) {
+        for (int i = 0; i < items.size(); i++) {
+            entityManager.persist(items.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return items;
+    }
+}
@@ -0,0 +1,316 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+/**
+ * In-memory trigram index over item name and description.
+ *
+ * <p>Every trigram maps to a sorted posting list of primitive item ids. A query is answered by
+ * intersecting the posting lists of its trigrams and verifying the candidates against the
+ * indexed text, so results match the SQL substring search exactly.
+ *
+ * <p>The index is built once the application is ready; until then searches use SQL.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+
+    private static final String INDEX_BACKEND = "index";
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final NavigableMap<Long, Document> documents = new TreeMap<>();
+    private volatile boolean built;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+            @Value("${shareit.item-search.backend:sql}") String backend) {
+        this.itemRepository = itemRepository;
+        this.enabled = INDEX_BACKEND.equalsIgnoreCase(backend);
+    }
+
+    /**
+     * Whether searches can be answered from the index: it is the configured backend and the first
+     * rebuild has finished.
+     */
+    public boolean isReady() {
+        return enabled && built;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            long lastId = 0;
+            List<Item> chunk;
+            do {
+                chunk = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId,
+                        PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                for (Item item : chunk) {
+                    add(new Document(item));
+                    lastId = item.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            built = true;
+            log.info("Item search index rebuilt: {} items, {} trigrams", documents.size(),
+                    postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the item as it is now once the current transaction commits.
+     */
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        Document document = new Document(item);
+        AfterCommit.run(() -> replace(document.id, document));
+    }
+
+    /**
+     * Drops the item from the index once the current transaction commits.
+     */
+    public void remove(long itemId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> replace(itemId, null));
+    }
+
+    /**
+     * Returns ids of available items matching the text, ordered like the SQL search.
+     */
+    public List<Long> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_SIZE) {
+                for (Document document : documents.values()) {
+                    addIfMatches(matches, document, query);
+                }
+            } else {
+                for (long id : candidates(query)) {
+                    addIfMatches(matches, documents.get(id), query);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::getRank).thenComparingLong(Match::getId));
+        List<Long> ids = new ArrayList<>();
+        for (int i = from; i < matches.size() && ids.size() < size; i++) {
+            ids.add(matches.get(i).getId());
+        }
+        return ids;
+    }
+
+    private long[] candidates(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList smallest = lists.get(0);
+        long[] result = new long[smallest.size()];
+        int count = 0;
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void addIfMatches(List<Match> matches, Document document, String query) {
+        if (!document.available) {
+            return;
+        }
+        if (document.name.equals(query)) {
+            matches.add(new Match(document.id, 0));
+        } else if (document.name.startsWith(query)) {
+            matches.add(new Match(document.id, 1));
+        } else if (document.name.contains(query)) {
+            matches.add(new Match(document.id, 2));
+        } else if (document.description.contains(query)) {
+            matches.add(new Match(document.id, 3));
+        }
+    }
+
+    private void replace(long itemId, Document document) {
+        lock.writeLock().lock();
+        try {
+            delete(itemId);
+            if (document != null) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Document document) {
+        documents.put(document.id, document);
+        for (long gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(document.id);
+        }
+    }
+
+    private void delete(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (long gram : document.grams()) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(itemId) && list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16)
+                    | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private Document(Item item) {
+            this.id = item.getId();
+            this.name = lower(item.getName());
+            this.description = lower(item.getDescription());
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        private Collection<Long> grams() {
+            Set<Long> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private long get(int index) {
+            return ids[index];
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+
+    private static final class Match {
+
+        private final long id;
+        private final int rank;
+
+        private Match(long id, int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+
+        private long getId() {
+            return id;
+        }
+
+        private int getRank() {
+            return rank;
+        }
+    }
+}
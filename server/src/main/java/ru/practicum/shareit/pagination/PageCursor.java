@@ -0,0 +1,57 @@
+package ru.practicum.shareit.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Opaque keyset pagination token holding the sort key and id of the last row of a page.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime key;
+    private final long id;
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            String key = value.substring(0, separator);
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new PageCursor(key.isEmpty() ? null : LocalDateTime.parse(key), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid page cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String value = (key == null ? "" : key.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, int size,
+            Function<T, PageCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)).encode());
+        }
+        return response.body(page);
+    }
+}
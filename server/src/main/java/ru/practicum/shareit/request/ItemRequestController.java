@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 @RestController
@@ -40,7 +42,7 @@ public class ItemRequestController {
     }
 
     @GetMapping(value = "/all")
-    public List<ItemRequestDto> getAll(
+    public ResponseEntity<List<ItemRequestDto>> getAll(
             @RequestParam(
                     name = "from",
                     defaultValue = "0") int from,
@@ -48,7 +50,14 @@ public class ItemRequestController {
                     name = "size",
                     required = false,
                     defaultValue = "10") int size,
+            @RequestParam(
+                    name = "after",
+                    required = false) String after,
             @RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemRequestService.getAll(userId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(itemRequestService.getAll(userId, from, size));
+        }
+        return PageCursor.toResponse(itemRequestService.getAllAfter(userId, after, size), size,
+                itemRequest -> new PageCursor(itemRequest.getCreated(), itemRequest.getId()));
     }
 }
\ No newline at end of file
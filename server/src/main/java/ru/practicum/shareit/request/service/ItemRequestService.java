@@ -13,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllByUser(Long userId);
 
     List<ItemRequestDto> getAll(Long userId, Integer from, Integer size);
+
+    List<ItemRequestDto> getAllAfter(Long userId, String after, Integer size);
 }
\ No newline at end of file
@@ -11,10 +11,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
-import ru.practicum.shareit.item.utils.ItemMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -29,6 +29,7 @@ import ru.practicum.shareit.user.storage.UserRepository;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final Sort sort = Sort.by(Sort.Direction.DESC, "created");
+    private final Sort cursorSort = Sort.by(Sort.Direction.DESC, "created", "id");
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
@@ -93,6 +94,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return allItemRequestsDto;
     }
 
+    @Override
+    public List<ItemRequestDto> getAllAfter(Long userId, String after, Integer size) {
+        containsUser(userId);
+        PageCursor cursor = PageCursor.decode(after);
+        PageRequest pageRequest = PageRequest.of(0, size, cursorSort);
+        List<ItemRequest> itemRequests;
+        if (cursor == null) {
+            itemRequests = itemRequestRepository.findAllByRequesterIdNot(userId, pageRequest);
+        } else {
+            if (cursor.getKey() == null) {
+                throw new ValidationException("Invalid page cursor for item requests.");
+            }
+            itemRequests = itemRequestRepository.findAllByRequesterIdNotAndCreatedBefore(userId,
+                    cursor.getKey(), cursor.getId(), pageRequest);
+        }
+        List<ItemRequestDto> itemRequestsDto = itemRequests.stream()
+                                                           .map(itemRequest -> ItemRequestMapper.toItemRequestDto(
+                                                                   itemRequest))
+                                                           .collect(Collectors.toList());
+        itemRequestsDto.forEach(itemRequestDto -> itemRequestDto.setItems(getItemsForItemRequest(
+                itemRequestDto.getId())));
+        log.info("Get item requests from user with id = " + userId + " after cursor " + after);
+        return itemRequestsDto;
+    }
+
     private void containsUser(long id) {
         if (!userRepository.existsById(id)) {
             throw new NotFoundException("User not found.");
@@ -100,13 +126,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private List<ItemDto> getItemsForItemRequest(long itemRequestId) {
-        List<ItemDto> itemsForItemRequest = new ArrayList<>();
-        List<Item> items = itemRepository.findByRequestId(itemRequestId);
-        if (!items.isEmpty()) {
-            itemsForItemRequest = items.stream()
-                                       .map(item -> ItemMapper.mapToItemDto(item, null))
-                                       .collect(Collectors.toList());
-        }
-        return itemsForItemRequest;
+        return itemRepository.findDtosByRequestId(itemRequestId);
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request.storage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.ItemRequest;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -11,4 +13,9 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findByRequesterId(long requesterId, Sort sort);
 
     List<ItemRequest> findAllByRequesterIdNot(long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requester.id <> :userId "
+            + "and (r.created < :created or (r.created = :created and r.id < :id))")
+    List<ItemRequest> findAllByRequesterIdNotAndCreatedBefore(long userId, LocalDateTime created,
+            long id, Pageable pageable);
 }
\ No newline at end of file
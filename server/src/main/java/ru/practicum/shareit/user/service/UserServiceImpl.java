@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
@@ -17,6 +18,7 @@ import ru.practicum.shareit.user.storage.UserRepository;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemService itemService;
 
     @Override
     public List<User> getAll() {
@@ -52,6 +54,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                                   .orElseThrow(() -> new NotFoundException("User not found"));
         log.info("Deleted user with id: {}", id);
+        itemService.deleteItemsByOwnerId(id);
         userRepository.delete(user);
         return user;
     }
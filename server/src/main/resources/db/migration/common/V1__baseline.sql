@@ -1,8 +1,3 @@
-DROP TABLE IF EXISTS users;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS comments;
-
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(255),
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    payload VARCHAR NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    published TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS booking_events_published_idx ON booking_events (published, id);
\ No newline at end of file
@@ -0,0 +1,5 @@
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
+
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_booking DESC, id DESC);
\ No newline at end of file
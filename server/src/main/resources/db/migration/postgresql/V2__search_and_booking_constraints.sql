@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_approved_no_overlap;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap EXCLUDE USING gist
+    (item_id WITH =, tsrange(start_booking, end_booking) WITH &&) WHERE (status = 'APPROVED');
\ No newline at end of file
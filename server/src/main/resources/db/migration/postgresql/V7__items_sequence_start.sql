@@ -0,0 +1 @@
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) FROM items) + 50, false);
\ No newline at end of file
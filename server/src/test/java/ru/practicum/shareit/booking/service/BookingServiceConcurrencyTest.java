@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.service.UserService;
+
+/**
+ * Hammers one item from many threads and checks that a slot is approved at most once.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Value("${shareit.bookings.lock-mode:database}")
+    private String lockMode;
+
+    private ExecutorService executor;
+    private User owner;
+    private Item item;
+    private List<User> bookers;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        owner = userService.create(user("owner"));
+        item = itemService.createItem(owner.getId(), new Item(null, "Drill", "Power drill", true,
+                null, null, null, null));
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.create(user("booker" + i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentApprovalsOfOneSlotApproveExactlyOneBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime end = start.plusHours(2);
+
+        List<Booking> created = runConcurrently("create", bookers.stream()
+                .<Callable<Booking>>map(booker -> () -> bookingService.create(booker.getId(),
+                        new BookingDto(null, item.getId(), null, start, end)))
+                .collect(Collectors.toList()));
+        assertThat(created).hasSize(THREADS).allMatch(booking -> booking.getStatus()
+                == BookingState.WAITING);
+
+        List<Booking> approved = runConcurrently("approve", created.stream()
+                .<Callable<Booking>>map(booking -> () -> {
+                    try {
+                        return bookingService.approveBooking(booking.getId(), true,
+                                owner.getId());
+                    } catch (ConflictException e) {
+                        return null;
+                    }
+                })
+                .collect(Collectors.toList()));
+
+        assertThat(approved).filteredOn(Objects::nonNull).hasSize(1);
+        assertThat(bookingRepository.findAll()).filteredOn(booking -> booking.getItem().getId()
+                        .equals(item.getId()) && booking.getStatus() == BookingState.APPROVED)
+                .hasSize(1);
+    }
+
+    @Test
+    void concurrentBatchDecisionsOfOneSlotApproveExactlyOneBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withNano(0);
+        LocalDateTime end = start.plusHours(2);
+        List<Booking> created = new ArrayList<>();
+        for (User booker : bookers) {
+            created.add(bookingService.create(booker.getId(),
+                    new BookingDto(null, item.getId(), null, start, end)));
+        }
+
+        List<BookingDecisionResult> results = runConcurrently("batch approve", created.stream()
+                .<Callable<BookingDecisionResult>>map(booking -> () -> bookingService
+                        .approveBookings(List.of(new BookingDecisionDto(booking.getId(), true)),
+                                owner.getId()).get(0))
+                .collect(Collectors.toList()));
+
+        assertThat(results).filteredOn(result -> result.getStatus() == BookingState.APPROVED)
+                           .hasSize(1);
+        assertThat(results).filteredOn(result -> result.getError() != null)
+                           .hasSize(THREADS - 1);
+        assertThat(bookingRepository.findAll()).filteredOn(booking -> booking.getItem().getId()
+                        .equals(item.getId()) && booking.getStatus() == BookingState.APPROVED)
+                .hasSize(1);
+    }
+
+    private <T> List<T> runConcurrently(String operation, List<Callable<T>> tasks)
+            throws Exception {
+        CountDownLatch ready = new CountDownLatch(tasks.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return task.call();
+            }));
+        }
+        ready.await(10, TimeUnit.SECONDS);
+        long startedAt = System.nanoTime();
+        go.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        log.info("{} lock mode, {} x{}: {} ms, {} ops/s", lockMode, operation, tasks.size(),
+                Math.round(seconds * 1000), Math.round(tasks.size() / seconds));
+        return results;
+    }
+
+    private static User user(String name) {
+        return new User(null, name, name + "-" + UUID.randomUUID() + "@test.ru");
+    }
+}
\ No newline at end of file
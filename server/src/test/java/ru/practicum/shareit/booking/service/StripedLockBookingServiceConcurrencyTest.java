@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "shareit.bookings.lock-mode=striped")
+class StripedLockBookingServiceConcurrencyTest extends BookingServiceConcurrencyTest {
+}
\ No newline at end of file
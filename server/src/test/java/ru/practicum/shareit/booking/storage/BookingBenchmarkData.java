@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.util.function.IntConsumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Generates booking datasets straight in H2 and times repeated queries against them.
+ */
+final class BookingBenchmarkData {
+
+    private static final int WARM_UP_ITERATIONS = 20;
+
+    private BookingBenchmarkData() {
+    }
+
+    /**
+     * Inserts users, items spread round-robin over the first {@code owners} users and bookings
+     * spread over all items and users, two hours each and one hour apart.
+     */
+    static void generate(JdbcTemplate jdbcTemplate, int users, int owners, int items,
+            int bookings) {
+        jdbcTemplate.update("insert into users (id, name, email) "
+                + "select x, 'user' || x, 'user' || x || '@benchmark.ru' "
+                + "from system_range(1, ?)", users);
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) "
+                + "select x, 'item' || x, 'description ' || x, true, mod(x, ?) + 1 "
+                + "from system_range(1, ?)", owners, items);
+        jdbcTemplate.update("insert into bookings "
+                + "(id, item_id, booker_id, owner_id, start_booking, end_booking, status) "
+                + "select x, mod(x, ?) + 1, mod(x * 7, ?) + 1, mod(mod(x, ?) + 1, ?) + 1, "
+                + "dateadd('HOUR', x, timestamp '2020-01-01 00:00:00'), "
+                + "dateadd('HOUR', x + 2, timestamp '2020-01-01 00:00:00'), "
+                + "case mod(x, 3) when 0 then 'WAITING' when 1 then 'APPROVED' "
+                + "else 'REJECTED' end "
+                + "from system_range(1, ?)", items, users, items, owners, bookings);
+    }
+
+    /**
+     * Copies the bookings into a table without indexes or constraints, so a query can be timed
+     * as a table scan and again after adding a single index.
+     */
+    static void copyBookings(JdbcTemplate jdbcTemplate, String table) {
+        jdbcTemplate.execute("create table " + table + " as select * from bookings");
+    }
+
+    /**
+     * Returns the mean time of one query in milliseconds. Each iteration gets its own index so
+     * queries can vary their parameters and do not hit H2's result reuse.
+     */
+    static double millisPerQuery(int iterations, IntConsumer query) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            query.accept(iterations + i);
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            query.accept(i);
+        }
+        return (System.nanoTime() - startedAt) / 1e6 / iterations;
+    }
+
+    static String plan(JdbcTemplate jdbcTemplate, String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, args));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Checks the {@code from - maxDuration} window that {@link BookingIntervalIndex} scans for
+ * intervals overlapping a range.
+ */
+class BookingIntervalIndexTest {
+
+    private static final long ITEM_ID = 1;
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(mock(BookingRepository.class));
+    }
+
+    @Test
+    void adjacentIntervalsLeaveNoGapBetweenThem() {
+        index.index(booking(1, 10, 12, BookingState.APPROVED));
+        index.index(booking(2, 12, 14, BookingState.WAITING));
+
+        assertThat(index.findFreeIntervals(ITEM_ID, at(8), at(16)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(8, 10), free(14, 16));
+    }
+
+    @Test
+    void nestedIntervalIsCoveredByTheEnclosingOne() {
+        index.index(booking(1, 10, 20, BookingState.APPROVED));
+        index.index(booking(2, 12, 14, BookingState.APPROVED));
+
+        assertThat(index.findFreeIntervals(ITEM_ID, at(8), at(22)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(8, 10), free(20, 22));
+        assertThat(index.findFreeIntervals(ITEM_ID, at(15), at(18))).isEmpty();
+    }
+
+    @Test
+    void rangeInsideLongIntervalStartingBeforeItIsOccupied() {
+        index.index(booking(1, 0, 100, BookingState.APPROVED));
+        index.index(booking(2, 98, 99, BookingState.APPROVED));
+
+        assertThat(index.findFreeIntervals(ITEM_ID, at(90), at(110)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(100, 110));
+    }
+
+    @Test
+    void removingLongestIntervalKeepsNextLongestInWindow() {
+        index.index(booking(1, 0, 10, BookingState.APPROVED));
+        index.index(booking(2, 2, 8, BookingState.APPROVED));
+        index.index(booking(3, 20, 21, BookingState.APPROVED));
+
+        index.remove(1);
+
+        assertThat(index.findFreeIntervals(ITEM_ID, at(7), at(9)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(8, 9));
+        assertThat(index.findFreeIntervals(ITEM_ID, at(0), at(2)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(0, 2));
+    }
+
+    @Test
+    void removingOneOfTwoLongestIntervalsKeepsTheOther() {
+        index.index(booking(1, 0, 10, BookingState.APPROVED));
+        index.index(booking(2, 20, 30, BookingState.APPROVED));
+
+        index.index(booking(1, 0, 10, BookingState.REJECTED));
+
+        assertThat(index.findFreeIntervals(ITEM_ID, at(5), at(25)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(5, 20));
+        assertThat(index.findFreeIntervals(ITEM_ID, at(25), at(35)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(free(30, 35));
+    }
+
+    private static Booking booking(long id, int startHour, int endHour, BookingState status) {
+        Item item = new Item();
+        item.setId(ITEM_ID);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(at(startHour));
+        booking.setEnd(at(endHour));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static FreeIntervalDto free(int startHour, int endHour) {
+        return new FreeIntervalDto(at(startHour), at(endHour));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return ORIGIN.plusHours(hour);
+    }
+}
\ No newline at end of file
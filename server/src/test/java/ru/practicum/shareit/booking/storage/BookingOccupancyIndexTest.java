@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Checks which items {@link BookingOccupancyIndex} decides from its hour bitmap and which it
+ * verifies against the database.
+ */
+class BookingOccupancyIndexTest {
+
+    private static final int HORIZON_DAYS = 7;
+    private static final long ITEM_ID = 1;
+    private static final long OTHER_ITEM_ID = 2;
+
+    private BookingRepository bookingRepository;
+    private BookingOccupancyIndex index;
+    private LocalDateTime tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingOccupancyIndex(bookingRepository, HORIZON_DAYS);
+        tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+    }
+
+    @Test
+    void itemsAreVerifiedAgainstDatabaseUntilFirstRebuild() {
+        index.index(booking(1, ITEM_ID, at(10), at(12), BookingState.APPROVED));
+        overlappingInDatabase(ITEM_ID);
+
+        assertThat(index.filterFree(List.of(ITEM_ID, OTHER_ITEM_ID), at(10), at(11)))
+                .containsExactly(OTHER_ITEM_ID);
+        verify(bookingRepository).findItemIdsWithOverlapping(Set.of(ITEM_ID, OTHER_ITEM_ID),
+                BookingState.APPROVED, at(10), at(11));
+    }
+
+    @Test
+    void fullyCoveredHourDecidesWithoutDatabase() {
+        rebuildWith();
+        index.index(booking(1, ITEM_ID, at(10), at(13), BookingState.APPROVED));
+
+        assertThat(index.filterFree(List.of(ITEM_ID, OTHER_ITEM_ID), at(11), at(12)))
+                .containsExactly(OTHER_ITEM_ID);
+        assertThat(index.filterFree(List.of(ITEM_ID), at(13), at(15)))
+                .containsExactly(ITEM_ID);
+        verifyNoDatabaseCheck();
+    }
+
+    @Test
+    void partiallyCoveredBoundaryHourIsVerifiedAgainstDatabase() {
+        rebuildWith();
+        index.index(booking(1, ITEM_ID, at(10), at(10).plusMinutes(30), BookingState.APPROVED));
+
+        assertThat(index.filterFree(List.of(ITEM_ID), at(11), at(12))).containsExactly(ITEM_ID);
+        verifyNoDatabaseCheck();
+
+        overlappingInDatabase();
+        assertThat(index.filterFree(List.of(ITEM_ID), at(10).plusMinutes(45), at(12)))
+                .containsExactly(ITEM_ID);
+        verify(bookingRepository).findItemIdsWithOverlapping(Set.of(ITEM_ID),
+                BookingState.APPROVED, at(10).plusMinutes(45), at(12));
+    }
+
+    @Test
+    void rangeBeyondHorizonIsVerifiedAgainstDatabase() {
+        rebuildWith();
+        LocalDateTime horizon = tomorrow.plusDays(HORIZON_DAYS - 1);
+
+        assertThat(index.filterFree(List.of(ITEM_ID), horizon.minusHours(2), horizon))
+                .containsExactly(ITEM_ID);
+        verifyNoDatabaseCheck();
+
+        overlappingInDatabase(ITEM_ID);
+        assertThat(index.filterFree(List.of(ITEM_ID), horizon.minusHours(2),
+                horizon.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    void changesCommittedDuringRebuildAreReplayed() {
+        Booking scanned = booking(1, ITEM_ID, at(10), at(12), BookingState.APPROVED);
+        Booking approvedDuringScan = booking(2, OTHER_ITEM_ID, at(10), at(12),
+                BookingState.APPROVED);
+        when(bookingRepository.findActiveByIdGreaterThan(anyCollection(), any(), anyLong(),
+                any())).thenAnswer(invocation -> {
+                    index.index(approvedDuringScan);
+                    index.index(booking(1, ITEM_ID, at(10), at(12), BookingState.REJECTED));
+                    return List.of(scanned);
+                });
+
+        index.rebuild();
+
+        assertThat(index.filterFree(List.of(ITEM_ID, OTHER_ITEM_ID), at(10), at(12)))
+                .containsExactly(ITEM_ID);
+        verifyNoDatabaseCheck();
+    }
+
+    private void rebuildWith(Booking... bookings) {
+        when(bookingRepository.findActiveByIdGreaterThan(anyCollection(), any(), anyLong(),
+                any())).thenReturn(List.of(bookings));
+        index.rebuild();
+    }
+
+    private void overlappingInDatabase(Long... itemIds) {
+        when(bookingRepository.findItemIdsWithOverlapping(anyCollection(),
+                eq(BookingState.APPROVED), any(), any())).thenReturn(List.of(itemIds));
+    }
+
+    private void verifyNoDatabaseCheck() {
+        verify(bookingRepository, never()).findItemIdsWithOverlapping(anyCollection(), any(),
+                any(), any());
+    }
+
+    private Booking booking(long id, long itemId, LocalDateTime start, LocalDateTime end,
+            BookingState status) {
+        Item item = new Item();
+        item.setId(itemId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private LocalDateTime at(int hour) {
+        return tomorrow.plusHours(hour);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Times the booker list and the overlap check as a table scan and with the index the
+ * migration adds for them.
+ *
+ * <p>H2 indexes foreign keys on its own, so both shapes run against an unindexed copy of the
+ * bookings to get the scan baseline. The dataset size is set with {@code -Dbenchmark.bookings};
+ * the default keeps the regular test run short. The plans are asserted, the timings are logged.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-query-benchmark")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryBenchmarkTest {
+
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 100_000);
+    private static final int USERS = 1_000;
+    private static final int ITEMS = 10_000;
+    private static final int ITERATIONS = 100;
+    private static final String TABLE = "bookings_benchmark";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final String BOOKER_LIST = "select b.id, i.id, i.name, u.id, u.name, u.email, "
+            + "b.start_booking, b.end_booking, b.status from " + TABLE + " b "
+            + "join items i on i.id = b.item_id join users u on u.id = b.booker_id "
+            + "where b.booker_id = ? order by b.start_booking desc, b.id desc limit 10";
+    private static final String OVERLAP_COUNT = "select count(*) from " + TABLE + " b "
+            + "where b.item_id = ? and b.status = 'APPROVED' and b.start_booking < ? "
+            + "and b.end_booking > ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void generateData() {
+        BookingBenchmarkData.generate(jdbcTemplate, USERS, USERS, ITEMS, BOOKINGS);
+        BookingBenchmarkData.copyBookings(jdbcTemplate, TABLE);
+    }
+
+    @Test
+    void bookerListUsesBookerStartIndex() {
+        compare("Booker list", "bookings_benchmark_booker_start_idx",
+                "(booker_id, start_booking DESC)", BOOKER_LIST,
+                iteration -> new Object[]{iteration % USERS + 1});
+    }
+
+    @Test
+    void overlapCountUsesItemStatusStartIndex() {
+        compare("Overlap count", "bookings_benchmark_item_status_start_idx",
+                "(item_id, status, start_booking)", OVERLAP_COUNT, iteration -> {
+                    Timestamp start = Timestamp.valueOf(EPOCH.plusHours(
+                            iteration * 37L % BOOKINGS));
+                    Timestamp end = Timestamp.valueOf(start.toLocalDateTime().plusDays(1));
+                    return new Object[]{iteration % ITEMS + 1, end, start};
+                });
+    }
+
+    private void compare(String query, String index, String columns, String sql,
+            IntFunction<Object[]> args) {
+        assertThat(BookingBenchmarkData.plan(jdbcTemplate, sql, args.apply(0)))
+                .containsIgnoringCase("tableScan");
+        double scanned = BookingBenchmarkData.millisPerQuery(ITERATIONS,
+                iteration -> jdbcTemplate.queryForList(sql, args.apply(iteration)));
+        jdbcTemplate.execute("create index " + index + " on " + TABLE + " " + columns);
+        try {
+            assertThat(BookingBenchmarkData.plan(jdbcTemplate, sql, args.apply(0)))
+                    .containsIgnoringCase(index);
+            double indexed = BookingBenchmarkData.millisPerQuery(ITERATIONS,
+                    iteration -> jdbcTemplate.queryForList(sql, args.apply(iteration)));
+            log.info("{} over {} bookings: {} ms per query as a table scan, {} ms with {}",
+                    query, BOOKINGS, String.format("%.2f", scanned),
+                    String.format("%.2f", indexed), index);
+        } finally {
+            jdbcTemplate.execute("drop index " + index);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Times the first page of an owner's bookings filtered through the items join and through the
+ * denormalized {@code bookings.owner_id}.
+ *
+ * <p>A few owners share many items, which is where the join hurts. The dataset size is set with
+ * {@code -Dbenchmark.bookings}; the default keeps the regular test run short.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:owner-booking-benchmark")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OwnerBookingQueryBenchmarkTest {
+
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 100_000);
+    private static final int USERS = 1_000;
+    private static final int OWNERS = 5;
+    private static final int ITEMS = 50_000;
+    private static final int ITERATIONS = 50;
+    private static final String OWNER_PAGE = "select b.id, i.id, i.name, u.id, u.name, u.email, "
+            + "b.start_booking, b.end_booking, b.status from bookings b "
+            + "join items i on i.id = b.item_id join users u on u.id = b.booker_id "
+            + "where %s = ? order by b.start_booking desc, b.id desc limit 10";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void generateData() {
+        BookingBenchmarkData.generate(jdbcTemplate, USERS, OWNERS, ITEMS, BOOKINGS);
+    }
+
+    @Test
+    void ownerIdOnBookingsBeatsItemsJoin() {
+        String joined = String.format(OWNER_PAGE, "i.owner_id");
+        String denormalized = String.format(OWNER_PAGE, "b.owner_id");
+        assertThat(BookingBenchmarkData.plan(jdbcTemplate, denormalized, 1))
+                .containsIgnoringCase("bookings_owner_start_idx");
+        assertThat(jdbcTemplate.queryForList(denormalized, 1))
+                .isEqualTo(jdbcTemplate.queryForList(joined, 1));
+
+        double viaJoin = BookingBenchmarkData.millisPerQuery(ITERATIONS,
+                iteration -> jdbcTemplate.queryForList(joined, iteration % OWNERS + 1));
+        double viaOwnerId = BookingBenchmarkData.millisPerQuery(ITERATIONS,
+                iteration -> jdbcTemplate.queryForList(denormalized, iteration % OWNERS + 1));
+        log.info("Owner page over {} bookings and {} items: {} ms per query through "
+                        + "items.owner_id, {} ms through bookings.owner_id", BOOKINGS, ITEMS,
+                String.format("%.2f", viaJoin), String.format("%.2f", viaOwnerId));
+    }
+}
\ No newline at end of file